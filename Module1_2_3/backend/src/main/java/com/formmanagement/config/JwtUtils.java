@@ -2,13 +2,19 @@ package com.formmanagement.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 @Component
 public class JwtUtils {
@@ -16,40 +22,91 @@ public class JwtUtils {
     @Value("${jwt.secret}")
     private String jwtSecret;
     
+    @Value("${jwt.key-id}")
+    private String jwtKeyId;
+    
+    @Value("${jwt.previous-keys}")
+    private String jwtPreviousKeys;
+    
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private SecretKey signingKey;
+    
+    private Map<String, SecretKey> verificationKeys;
+    
+    private JwtParser jwtParser;
+    
+    // Key material and the parser are immutable and thread-safe, so they are built once
+    // and shared by every request instead of being recreated per sign/verify call
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(jwtKeyId, signingKey);
+        // Retired keys stay valid for verification until their tokens expire: "kid=secret,kid=secret"
+        for (String entry : jwtPreviousKeys.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                keys.put(entry.substring(0, separator).trim(),
+                         Keys.hmacShaKeyFor(entry.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        verificationKeys = Map.copyOf(keys);
+        
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+    
+    private Key resolveVerificationKey(String keyId) {
+        // Tokens issued before key ids were introduced carry no kid header
+        if (keyId == null) {
+            return signingKey;
+        }
+        
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown JWT key id: " + keyId);
+        }
+        return key;
     }
     
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        Date now = new Date();
         
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyId)
                 .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
     
     public boolean validateJwtToken(String authToken) {
+        return getClaimsFromJwtToken(authToken) != null;
+    }
+    
+    // Verifies the token and returns its claims in one parse, or null if it is not valid
+    @Timed(value = "jwt.validation", histogram = true)
+    public Claims getClaimsFromJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken)
+                .getBody();
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -59,6 +116,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,68 @@
+package com.formmanagement.config;
+
+import com.formmanagement.service.SubmissionRateLimiter;
+import com.formmanagement.util.RequestUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Rejects over-limit submissions with 429 before JWT parsing, form lookup or any other
+// database work. Only POST /responses/submit/{formId} is limited.
+public class SubmissionRateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String SUBMIT_PATH = "/responses/submit/";
+    
+    private final SubmissionRateLimiter rateLimiter;
+    
+    public SubmissionRateLimitFilter(SubmissionRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || !request.getServletPath().startsWith(SUBMIT_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long formId = parseFormId(request.getServletPath());
+        if (formId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long waitNanos = rateLimiter.tryAcquire(RequestUtils.getClientIpAddress(request), formId);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (TimeUnit.NANOSECONDS.toMillis(waitNanos) + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Error: Too many submissions, please retry later");
+            return;
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    // Malformed ids are left to the controller to reject
+    private Long parseFormId(String path) {
+        String id = path.substring(SUBMIT_PATH.length());
+        int slash = id.indexOf('/');
+        try {
+            return Long.parseLong(slash >= 0 ? id.substring(0, slash) : id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.formmanagement.controller;
+
+import com.formmanagement.dto.BackfillJobDto;
+import com.formmanagement.service.AnalyticsBackfillService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/admin/analytics/backfill")
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsBackfillController {
+    
+    @Autowired
+    private AnalyticsBackfillService analyticsBackfillService;
+    
+    @PostMapping("/{formId}")
+    public ResponseEntity<?> startBackfill(@PathVariable Long formId,
+                                           @RequestParam(defaultValue = "false") boolean restart) {
+        try {
+            BackfillJobDto job = analyticsBackfillService.startBackfill(formId, restart);
+            return ResponseEntity.accepted().body(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/{formId}")
+    public ResponseEntity<?> getBackfillStatus(@PathVariable Long formId) {
+        try {
+            BackfillJobDto job = analyticsBackfillService.getBackfillStatus(formId);
+            return ResponseEntity.ok(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+}
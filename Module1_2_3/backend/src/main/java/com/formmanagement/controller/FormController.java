@@ -1,9 +1,13 @@
 package com.formmanagement.controller;
 
+import com.formmanagement.dto.FormAnalyticsDto;
 import com.formmanagement.dto.FormDto;
 import com.formmanagement.model.User;
+import com.formmanagement.service.FormAnalyticsService;
 import com.formmanagement.service.FormService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -16,9 +20,14 @@ import java.util.Optional;
 @RequestMapping("/forms")
 public class FormController {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private FormService formService;
     
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+    
     @PostMapping
     public ResponseEntity<?> createForm(@RequestBody FormDto formDto, Authentication authentication) {
         try {
@@ -57,9 +66,15 @@ public class FormController {
     }
     
     @GetMapping("/my-forms")
-    public ResponseEntity<?> getMyForms(Authentication authentication) {
+    public ResponseEntity<?> getMyForms(@RequestParam(required = false) Integer page,
+                                        @RequestParam(defaultValue = "20") int size,
+                                        Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
+            if (page != null) {
+                Page<FormDto> forms = formService.getFormsByCreator(user, pageRequest(page, size));
+                return ResponseEntity.ok(forms);
+            }
             List<FormDto> forms = formService.getFormsByCreator(user);
             return ResponseEntity.ok(forms);
         } catch (Exception e) {
@@ -69,8 +84,13 @@ public class FormController {
     }
     
     @GetMapping("/public")
-    public ResponseEntity<?> getPublicForms() {
+    public ResponseEntity<?> getPublicForms(@RequestParam(required = false) Integer page,
+                                            @RequestParam(defaultValue = "20") int size) {
         try {
+            if (page != null) {
+                Page<FormDto> forms = formService.getPublicForms(pageRequest(page, size));
+                return ResponseEntity.ok(forms);
+            }
             List<FormDto> forms = formService.getPublicForms();
             return ResponseEntity.ok(forms);
         } catch (Exception e) {
@@ -94,6 +114,18 @@ public class FormController {
         }
     }
     
+    @GetMapping("/{formId}/analytics")
+    public ResponseEntity<?> getFormAnalytics(@PathVariable Long formId, Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            FormAnalyticsDto analytics = formAnalyticsService.getAnalytics(formId, user);
+            return ResponseEntity.ok(analytics);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/public/{formId}")
     public ResponseEntity<?> getPublicFormById(@PathVariable Long formId) {
         try {
@@ -108,4 +140,8 @@ public class FormController {
                     .body("Error: " + e.getMessage());
         }
     }
+    
+    private PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
 }
@@ -1,15 +1,33 @@
 package com.formmanagement.controller;
 
+import com.formmanagement.dto.CursorPage;
+import com.formmanagement.dto.FileReference;
+import com.formmanagement.dto.FullTextMatchDto;
 import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.dto.ResponseSearchRequest;
+import com.formmanagement.dto.SubmissionReceipt;
 import com.formmanagement.model.User;
+import com.formmanagement.service.BlobStoreService;
+import com.formmanagement.service.FileAttachmentService;
+import com.formmanagement.service.IngestionQueueFullException;
+import com.formmanagement.service.ResponseExportService;
 import com.formmanagement.service.ResponseService;
+import com.formmanagement.service.SubmissionIngestionService;
+import com.formmanagement.util.RequestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +39,18 @@ public class ResponseController {
     @Autowired
     private ResponseService responseService;
     
+    @Autowired
+    private SubmissionIngestionService submissionIngestionService;
+    
+    @Autowired
+    private ResponseExportService responseExportService;
+    
+    @Autowired
+    private FileAttachmentService fileAttachmentService;
+    
+    @Autowired
+    private BlobStoreService blobStoreService;
+    
     @PostMapping("/submit/{formId}")
     public ResponseEntity<?> submitResponse(@PathVariable Long formId, 
                                          @RequestBody Map<String, Object> responseData,
@@ -28,18 +58,41 @@ public class ResponseController {
                                          @RequestParam(required = false) String respondentName,
                                          HttpServletRequest request,
                                          Authentication authentication) {
+        User user = authentication != null ? (User) authentication.getPrincipal() : null;
+        return submit(formId, responseData, respondentEmail, respondentName, request, user);
+    }
+    
+    // Multipart variant: answers go in a JSON "data" part and each file in a part named
+    // after its FILE field id
+    @PostMapping(value = "/submit/{formId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitResponseWithFiles(@PathVariable Long formId,
+                                                     @RequestPart(value = FileAttachmentService.DATA_PART, required = false) Map<String, Object> responseData,
+                                                     @RequestParam(required = false) String respondentEmail,
+                                                     @RequestParam(required = false) String respondentName,
+                                                     MultipartHttpServletRequest request,
+                                                     Authentication authentication) {
+        User user = authentication != null ? (User) authentication.getPrincipal() : null;
+        Map<String, Object> data = responseData != null ? new HashMap<>(responseData) : new HashMap<>();
         try {
-            User user = authentication != null ? (User) authentication.getPrincipal() : null;
-            String ipAddress = getClientIpAddress(request);
-            String userAgent = request.getHeader("User-Agent");
-            
-            var response = responseService.submitResponse(formId, responseData, respondentEmail, 
-                                                        respondentName, ipAddress, userAgent, user);
-            return ResponseEntity.ok("Response submitted successfully");
+            data.putAll(fileAttachmentService.storeUploads(formId, request.getMultiFileMap(), user));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body("Error: " + e.getMessage());
         }
+        return submit(formId, data, respondentEmail, respondentName, request, user);
+    }
+    
+    @GetMapping("/{responseId}/files/{fieldId}")
+    public void downloadFile(@PathVariable Long responseId, @PathVariable Long fieldId,
+                             Authentication authentication, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        try {
+            User user = (User) authentication.getPrincipal();
+            FileReference file = fileAttachmentService.getAttachment(responseId, fieldId, user);
+            blobStoreService.serve(file, request, response);
+        } catch (RuntimeException e) {
+            writeStreamingError(response, e);
+        }
     }
     
     @GetMapping("/form/{formId}")
@@ -54,6 +107,95 @@ public class ResponseController {
         }
     }
     
+    @GetMapping("/form/{formId}/page")
+    public ResponseEntity<?> getResponsePageByForm(@PathVariable Long formId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int size,
+                                                  Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            CursorPage<ResponseDto> page = responseService.getResponsePageByForm(formId, cursor, size, user);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/form/{formId}/search")
+    public ResponseEntity<?> searchResponses(@PathVariable Long formId,
+                                             @RequestBody ResponseSearchRequest searchRequest,
+                                             Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            CursorPage<ResponseDto> page = responseService.searchResponses(formId, searchRequest, user);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/form/{formId}/fulltext")
+    public ResponseEntity<?> searchFullText(@PathVariable Long formId,
+                                            @RequestParam String q,
+                                            @RequestParam(defaultValue = "20") int limit,
+                                            Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            List<FullTextMatchDto> matches = responseService.searchFullText(formId, q, limit, user);
+            return ResponseEntity.ok(matches);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/form/{formId}/fulltext/rebuild")
+    public ResponseEntity<?> rebuildFullTextIndex(@PathVariable Long formId, Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            responseService.rebuildFullTextIndex(formId, user);
+            return ResponseEntity.accepted().body("Full-text index rebuild started");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/form/{formId}/stream")
+    public void streamResponsesByForm(@PathVariable Long formId, Authentication authentication,
+                                      HttpServletResponse response) throws IOException {
+        try {
+            User user = (User) authentication.getPrincipal();
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            responseService.streamResponsesByForm(formId, user, response.getOutputStream());
+        } catch (RuntimeException e) {
+            writeStreamingError(response, e);
+        }
+    }
+    
+    @GetMapping("/form/{formId}/export")
+    public void exportResponses(@PathVariable Long formId, @RequestParam(defaultValue = "csv") String format,
+                                Authentication authentication, HttpServletResponse response) throws IOException {
+        try {
+            User user = (User) authentication.getPrincipal();
+            if ("csv".equalsIgnoreCase(format)) {
+                response.setContentType("text/csv;charset=UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"form-" + formId + "-responses.csv\"");
+                responseExportService.exportCsv(formId, user, response.getOutputStream());
+            } else if ("xlsx".equalsIgnoreCase(format)) {
+                response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"form-" + formId + "-responses.xlsx\"");
+                responseExportService.exportXlsx(formId, user, response.getOutputStream());
+            } else {
+                throw new RuntimeException("Unsupported export format: " + format);
+            }
+        } catch (RuntimeException e) {
+            writeStreamingError(response, e);
+        }
+    }
+    
     @GetMapping("/form/{formId}/date-range")
     public ResponseEntity<?> getResponsesByFormAndDateRange(@PathVariable Long formId,
                                                            @RequestParam String startDate,
@@ -72,12 +214,39 @@ public class ResponseController {
         }
     }
     
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
-        if (xForwardedForHeader == null) {
-            return request.getRemoteAddr();
-        } else {
-            return xForwardedForHeader.split(",")[0];
+    private ResponseEntity<?> submit(Long formId, Map<String, Object> responseData, String respondentEmail,
+                                     String respondentName, HttpServletRequest request, User user) {
+        try {
+            String ipAddress = RequestUtils.getClientIpAddress(request);
+            String userAgent = request.getHeader("User-Agent");
+            
+            if (submissionIngestionService.isEnabled()) {
+                SubmissionReceipt receipt = submissionIngestionService.accept(formId, responseData, respondentEmail,
+                                                                              respondentName, ipAddress, userAgent, user);
+                return ResponseEntity.accepted().body(receipt);
+            }
+            
+            var response = responseService.submitResponse(formId, responseData, respondentEmail, 
+                                                        respondentName, ipAddress, userAgent, user);
+            return ResponseEntity.ok("Response submitted successfully");
+        } catch (IngestionQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + e.getMessage());
+        }
+    }
+    
+    private void writeStreamingError(HttpServletResponse response, RuntimeException e) throws IOException {
+        // Once rows have been flushed the status can no longer change
+        if (response.isCommitted()) {
+            throw e;
         }
+        response.reset();
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Error: " + e.getMessage());
     }
 }
@@ -0,0 +1,118 @@
+package com.formmanagement.dto;
+
+import com.formmanagement.model.AnalyticsBackfillJob;
+
+import java.time.LocalDateTime;
+
+public class BackfillJobDto {
+    
+    private Long formId;
+    private String status;
+    private Long totalEntries;
+    private Long processedEntries;
+    private Double progress;
+    private Boolean running;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public BackfillJobDto() {}
+    
+    public BackfillJobDto(AnalyticsBackfillJob job, boolean running) {
+        this.formId = job.getFormId();
+        this.status = job.getStatus().name();
+        this.totalEntries = job.getTotalEntries();
+        this.processedEntries = job.getProcessedEntries();
+        this.progress = job.getTotalEntries() > 0
+                ? Math.min(1.0, (double) job.getProcessedEntries() / job.getTotalEntries())
+                : 1.0;
+        this.running = running;
+        this.errorMessage = job.getErrorMessage();
+        this.startedAt = job.getStartedAt();
+        this.updatedAt = job.getUpdatedAt();
+        this.completedAt = job.getCompletedAt();
+    }
+    
+    // Getters and Setters
+    public Long getFormId() {
+        return formId;
+    }
+    
+    public void setFormId(Long formId) {
+        this.formId = formId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Long getTotalEntries() {
+        return totalEntries;
+    }
+    
+    public void setTotalEntries(Long totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+    
+    public Long getProcessedEntries() {
+        return processedEntries;
+    }
+    
+    public void setProcessedEntries(Long processedEntries) {
+        this.processedEntries = processedEntries;
+    }
+    
+    public Double getProgress() {
+        return progress;
+    }
+    
+    public void setProgress(Double progress) {
+        this.progress = progress;
+    }
+    
+    public Boolean getRunning() {
+        return running;
+    }
+    
+    public void setRunning(Boolean running) {
+        this.running = running;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.formmanagement.dto;
+
+import com.formmanagement.model.FormField;
+
+import java.util.Map;
+
+public class FieldAnalyticsDto {
+    
+    private Long fieldId;
+    private String label;
+    private String fieldType;
+    private Map<String, Long> optionCounts;
+    private Long valueCount;
+    private Double min;
+    private Double max;
+    private Double mean;
+    
+    // Constructors
+    public FieldAnalyticsDto() {}
+    
+    public FieldAnalyticsDto(FormField field) {
+        this.fieldId = field.getId();
+        this.label = field.getLabel();
+        this.fieldType = field.getFieldType().name();
+    }
+    
+    // Getters and Setters
+    public Long getFieldId() {
+        return fieldId;
+    }
+    
+    public void setFieldId(Long fieldId) {
+        this.fieldId = fieldId;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public void setLabel(String label) {
+        this.label = label;
+    }
+    
+    public String getFieldType() {
+        return fieldType;
+    }
+    
+    public void setFieldType(String fieldType) {
+        this.fieldType = fieldType;
+    }
+    
+    public Map<String, Long> getOptionCounts() {
+        return optionCounts;
+    }
+    
+    public void setOptionCounts(Map<String, Long> optionCounts) {
+        this.optionCounts = optionCounts;
+    }
+    
+    public Long getValueCount() {
+        return valueCount;
+    }
+    
+    public void setValueCount(Long valueCount) {
+        this.valueCount = valueCount;
+    }
+    
+    public Double getMin() {
+        return min;
+    }
+    
+    public void setMin(Double min) {
+        this.min = min;
+    }
+    
+    public Double getMax() {
+        return max;
+    }
+    
+    public void setMax(Double max) {
+        this.max = max;
+    }
+    
+    public Double getMean() {
+        return mean;
+    }
+    
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+}
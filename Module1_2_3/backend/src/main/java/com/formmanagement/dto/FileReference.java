@@ -0,0 +1,78 @@
+package com.formmanagement.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.regex.Pattern;
+
+// What a FILE answer stores in response_entries.field_value: the SHA-256 of the content in
+// the blob store plus the metadata needed to serve it back
+public class FileReference {
+    
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    
+    private String sha256;
+    private String filename;
+    private String contentType;
+    private Long size;
+    
+    // Constructors
+    public FileReference() {}
+    
+    public FileReference(String sha256, String filename, String contentType, Long size) {
+        this.sha256 = sha256;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.size = size;
+    }
+    
+    public static boolean isValidHash(String sha256) {
+        return sha256 != null && SHA256_HEX.matcher(sha256).matches();
+    }
+    
+    // Returns null when the value is not a file reference, e.g. an inline string
+    public static FileReference parse(String value, ObjectMapper objectMapper) {
+        if (value == null || !value.startsWith("{")) {
+            return null;
+        }
+        try {
+            FileReference reference = objectMapper.readValue(value, FileReference.class);
+            return isValidHash(reference.getSha256()) ? reference : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+    
+    // Getters and Setters
+    public String getSha256() {
+        return sha256;
+    }
+    
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+    
+    public String getFilename() {
+        return filename;
+    }
+    
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Long getSize() {
+        return size;
+    }
+    
+    public void setSize(Long size) {
+        this.size = size;
+    }
+}
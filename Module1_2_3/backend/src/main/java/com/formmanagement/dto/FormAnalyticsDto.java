@@ -0,0 +1,53 @@
+package com.formmanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class FormAnalyticsDto {
+    
+    private Long formId;
+    private Long totalSubmissions;
+    private Map<LocalDateTime, Long> hourlySubmissions;
+    private List<FieldAnalyticsDto> fields;
+    
+    // Constructors
+    public FormAnalyticsDto() {}
+    
+    public FormAnalyticsDto(Long formId) {
+        this.formId = formId;
+    }
+    
+    // Getters and Setters
+    public Long getFormId() {
+        return formId;
+    }
+    
+    public void setFormId(Long formId) {
+        this.formId = formId;
+    }
+    
+    public Long getTotalSubmissions() {
+        return totalSubmissions;
+    }
+    
+    public void setTotalSubmissions(Long totalSubmissions) {
+        this.totalSubmissions = totalSubmissions;
+    }
+    
+    public Map<LocalDateTime, Long> getHourlySubmissions() {
+        return hourlySubmissions;
+    }
+    
+    public void setHourlySubmissions(Map<LocalDateTime, Long> hourlySubmissions) {
+        this.hourlySubmissions = hourlySubmissions;
+    }
+    
+    public List<FieldAnalyticsDto> getFields() {
+        return fields;
+    }
+    
+    public void setFields(List<FieldAnalyticsDto> fields) {
+        this.fields = fields;
+    }
+}
@@ -5,6 +5,7 @@ import com.formmanagement.model.FormField;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class FormDto {
     
@@ -43,6 +44,24 @@ public class FormDto {
         this.updatedAt = form.getUpdatedAt();
     }
     
+    public FormDto(FormDto other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.creatorId = other.creatorId;
+        this.creatorUsername = other.creatorUsername;
+        this.isActive = other.isActive;
+        this.isPublic = other.isPublic;
+        this.submissionLimit = other.submissionLimit;
+        this.allowDuplicate = other.allowDuplicate;
+        this.requireLogin = other.requireLogin;
+        this.expiresAt = other.expiresAt;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.fields = other.fields != null ? other.fields.stream().map(FormFieldDto::new).collect(Collectors.toList()) : null;
+        this.responseCount = other.responseCount;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
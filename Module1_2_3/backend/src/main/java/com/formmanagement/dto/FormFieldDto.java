@@ -29,6 +29,18 @@ public class FormFieldDto {
         this.validationRules = formField.getValidationRules();
     }
     
+    public FormFieldDto(FormFieldDto other) {
+        this.id = other.id;
+        this.label = other.label;
+        this.fieldType = other.fieldType;
+        this.isRequired = other.isRequired;
+        this.fieldOrder = other.fieldOrder;
+        this.placeholder = other.placeholder;
+        this.helpText = other.helpText;
+        this.options = other.options;
+        this.validationRules = other.validationRules;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,52 @@
+package com.formmanagement.dto;
+
+public class FullTextMatchDto {
+    
+    private Long responseId;
+    private Long fieldId;
+    private Float score;
+    private String value;
+    
+    // Constructors
+    public FullTextMatchDto() {}
+    
+    public FullTextMatchDto(Long responseId, Long fieldId, Float score, String value) {
+        this.responseId = responseId;
+        this.fieldId = fieldId;
+        this.score = score;
+        this.value = value;
+    }
+    
+    // Getters and Setters
+    public Long getResponseId() {
+        return responseId;
+    }
+    
+    public void setResponseId(Long responseId) {
+        this.responseId = responseId;
+    }
+    
+    public Long getFieldId() {
+        return fieldId;
+    }
+    
+    public void setFieldId(Long fieldId) {
+        this.fieldId = fieldId;
+    }
+    
+    public Float getScore() {
+        return score;
+    }
+    
+    public void setScore(Float score) {
+        this.score = score;
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,106 @@
+package com.formmanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class PendingSubmission {
+    
+    private String receiptId;
+    private Long formId;
+    private Long userId;
+    private Map<String, Object> responseData;
+    private String respondentEmail;
+    private String respondentName;
+    private String ipAddress;
+    private String userAgent;
+    private LocalDateTime acceptedAt;
+    
+    // Constructors
+    public PendingSubmission() {}
+    
+    public PendingSubmission(String receiptId, Long formId, Long userId, Map<String, Object> responseData,
+                             String respondentEmail, String respondentName, String ipAddress, String userAgent) {
+        this.receiptId = receiptId;
+        this.formId = formId;
+        this.userId = userId;
+        this.responseData = responseData;
+        this.respondentEmail = respondentEmail;
+        this.respondentName = respondentName;
+        this.ipAddress = ipAddress;
+        this.userAgent = userAgent;
+        this.acceptedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getReceiptId() {
+        return receiptId;
+    }
+    
+    public void setReceiptId(String receiptId) {
+        this.receiptId = receiptId;
+    }
+    
+    public Long getFormId() {
+        return formId;
+    }
+    
+    public void setFormId(Long formId) {
+        this.formId = formId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Map<String, Object> getResponseData() {
+        return responseData;
+    }
+    
+    public void setResponseData(Map<String, Object> responseData) {
+        this.responseData = responseData;
+    }
+    
+    public String getRespondentEmail() {
+        return respondentEmail;
+    }
+    
+    public void setRespondentEmail(String respondentEmail) {
+        this.respondentEmail = respondentEmail;
+    }
+    
+    public String getRespondentName() {
+        return respondentName;
+    }
+    
+    public void setRespondentName(String respondentName) {
+        this.respondentName = respondentName;
+    }
+    
+    public String getIpAddress() {
+        return ipAddress;
+    }
+    
+    public void setIpAddress(String ipAddress) {
+        this.ipAddress = ipAddress;
+    }
+    
+    public String getUserAgent() {
+        return userAgent;
+    }
+    
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+    
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+    
+    public void setAcceptedAt(LocalDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+}
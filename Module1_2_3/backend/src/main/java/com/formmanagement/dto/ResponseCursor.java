@@ -0,0 +1,45 @@
+package com.formmanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset position over (submitted_at, id), encoded as URL-safe base64
+public class ResponseCursor {
+    
+    private final LocalDateTime submittedAt;
+    private final Long id;
+    
+    public ResponseCursor(LocalDateTime submittedAt, Long id) {
+        this.submittedAt = submittedAt;
+        this.id = id;
+    }
+    
+    public static ResponseCursor of(ResponseDto response) {
+        return new ResponseCursor(response.getSubmittedAt(), response.getId());
+    }
+    
+    public static ResponseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('_');
+            return new ResponseCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                      Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    public String encode() {
+        String raw = submittedAt + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+}
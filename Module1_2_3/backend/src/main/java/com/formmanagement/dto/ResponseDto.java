@@ -31,6 +31,18 @@ public class ResponseDto {
         this.isDuplicate = response.getIsDuplicate();
     }
     
+    public ResponseDto(Long id, Long formId, Long userId, String respondentEmail, String respondentName,
+                       String ipAddress, LocalDateTime submittedAt, Boolean isDuplicate) {
+        this.id = id;
+        this.formId = formId;
+        this.userId = userId;
+        this.respondentEmail = respondentEmail;
+        this.respondentName = respondentName;
+        this.ipAddress = ipAddress;
+        this.submittedAt = submittedAt;
+        this.isDuplicate = isDuplicate;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
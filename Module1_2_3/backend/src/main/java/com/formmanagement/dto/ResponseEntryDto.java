@@ -19,6 +19,13 @@ public class ResponseEntryDto {
         this.fieldValue = responseEntry.getFieldValue();
     }
     
+    public ResponseEntryDto(Long id, Long responseId, Long formFieldId, String fieldValue) {
+        this.id = id;
+        this.responseId = responseId;
+        this.formFieldId = formFieldId;
+        this.fieldValue = fieldValue;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
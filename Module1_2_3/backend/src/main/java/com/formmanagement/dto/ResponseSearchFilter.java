@@ -0,0 +1,40 @@
+package com.formmanagement.dto;
+
+import java.util.List;
+
+// Conditions and nested groups are combined with AND when match is ALL (the default)
+// and with OR when match is ANY
+public class ResponseSearchFilter {
+    
+    private String match = "ALL";
+    private List<SearchCondition> conditions;
+    private List<ResponseSearchFilter> groups;
+    
+    // Constructors
+    public ResponseSearchFilter() {}
+    
+    // Getters and Setters
+    public String getMatch() {
+        return match;
+    }
+    
+    public void setMatch(String match) {
+        this.match = match;
+    }
+    
+    public List<SearchCondition> getConditions() {
+        return conditions;
+    }
+    
+    public void setConditions(List<SearchCondition> conditions) {
+        this.conditions = conditions;
+    }
+    
+    public List<ResponseSearchFilter> getGroups() {
+        return groups;
+    }
+    
+    public void setGroups(List<ResponseSearchFilter> groups) {
+        this.groups = groups;
+    }
+}
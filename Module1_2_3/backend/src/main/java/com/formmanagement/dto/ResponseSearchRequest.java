@@ -0,0 +1,36 @@
+package com.formmanagement.dto;
+
+public class ResponseSearchRequest {
+    
+    private ResponseSearchFilter filter;
+    private String cursor;
+    private Integer size;
+    
+    // Constructors
+    public ResponseSearchRequest() {}
+    
+    // Getters and Setters
+    public ResponseSearchFilter getFilter() {
+        return filter;
+    }
+    
+    public void setFilter(ResponseSearchFilter filter) {
+        this.filter = filter;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    public Integer getSize() {
+        return size;
+    }
+    
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
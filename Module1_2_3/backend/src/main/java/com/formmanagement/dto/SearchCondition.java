@@ -0,0 +1,66 @@
+package com.formmanagement.dto;
+
+import java.util.List;
+
+// operator is EQUALS (value), CONTAINS (value), RANGE (min and/or max) or IN (values)
+public class SearchCondition {
+    
+    private Long fieldId;
+    private String operator;
+    private String value;
+    private List<String> values;
+    private String min;
+    private String max;
+    
+    // Constructors
+    public SearchCondition() {}
+    
+    // Getters and Setters
+    public Long getFieldId() {
+        return fieldId;
+    }
+    
+    public void setFieldId(Long fieldId) {
+        this.fieldId = fieldId;
+    }
+    
+    public String getOperator() {
+        return operator;
+    }
+    
+    public void setOperator(String operator) {
+        this.operator = operator;
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    public void setValue(String value) {
+        this.value = value;
+    }
+    
+    public List<String> getValues() {
+        return values;
+    }
+    
+    public void setValues(List<String> values) {
+        this.values = values;
+    }
+    
+    public String getMin() {
+        return min;
+    }
+    
+    public void setMin(String min) {
+        this.min = min;
+    }
+    
+    public String getMax() {
+        return max;
+    }
+    
+    public void setMax(String max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,43 @@
+package com.formmanagement.dto;
+
+import java.time.LocalDateTime;
+
+public class SubmissionReceipt {
+    
+    private String receiptId;
+    private String status = "ACCEPTED";
+    private LocalDateTime acceptedAt;
+    
+    // Constructors
+    public SubmissionReceipt() {}
+    
+    public SubmissionReceipt(PendingSubmission submission) {
+        this.receiptId = submission.getReceiptId();
+        this.acceptedAt = submission.getAcceptedAt();
+    }
+    
+    // Getters and Setters
+    public String getReceiptId() {
+        return receiptId;
+    }
+    
+    public void setReceiptId(String receiptId) {
+        this.receiptId = receiptId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+    
+    public void setAcceptedAt(LocalDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+}
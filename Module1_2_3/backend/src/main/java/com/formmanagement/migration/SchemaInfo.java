@@ -0,0 +1,45 @@
+package com.formmanagement.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+// Schema lookups through the JDBC metadata (information_schema on MySQL), so a migration can
+// skip a step whose result already exists. Behaves the same on MySQL and on H2 in MySQL mode.
+final class SchemaInfo {
+    
+    private SchemaInfo() {}
+    
+    static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                pattern(metaData, table), pattern(metaData, column))) {
+            return columns.next();
+        }
+    }
+    
+    static boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table), false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    // Unquoted names are stored upper case by some databases, e.g. H2 outside MySQL mode
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name;
+    }
+    
+    // getColumns takes LIKE patterns, where the underscores in our names are wildcards
+    private static String pattern(DatabaseMetaData metaData, String name) throws SQLException {
+        return identifier(metaData, name).replace("_", metaData.getSearchStringEscape() + "_");
+    }
+}
@@ -0,0 +1,157 @@
+package com.formmanagement.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+// Typed value columns for response_entries: adds numeric_value, date_value and short_value,
+// fills them for existing rows and indexes them per field. Databases created by the init.sql
+// that predates Flyway, upgraded with the old hand-run script or by ddl-auto already have some
+// or all of this, so each step checks the schema first and the backfill only touches rows
+// whose typed columns are still empty.
+@Component
+public class V2__typed_response_values extends BaseJavaMigration {
+    
+    private static final int CHUNK_SIZE = 10000;
+    
+    private static final Pattern NUMBER = Pattern.compile("[-+]?([0-9]+\\.?[0-9]*|\\.[0-9]+)([eE][-+]?[0-9]+)?");
+    private static final Pattern DATE = Pattern.compile("[0-9]{4}-[0-9]{2}-[0-9]{2}");
+    private static final int SHORT_VALUE_LENGTH = 255;
+    
+    private static final String CHUNK_SQL =
+            "SELECT e.id, f.field_type, e.field_value FROM response_entries e " +
+            "JOIN form_fields f ON f.id = e.form_field_id " +
+            "WHERE e.id > ? AND e.id <= ? AND e.numeric_value IS NULL AND e.date_value IS NULL " +
+            "AND e.short_value IS NULL AND f.field_type IN ('NUMBER', 'DATE', 'TEXT', 'EMAIL', 'RADIO', 'DROPDOWN')";
+    
+    private static final String UPDATE_SQL =
+            "UPDATE response_entries SET numeric_value = ?, date_value = ?, short_value = ? WHERE id = ?";
+    
+    // The backfill commits chunk by chunk, which a surrounding transaction would prevent
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            addColumn(connection, statement, "numeric_value", "DOUBLE NULL");
+            addColumn(connection, statement, "date_value", "DATETIME NULL");
+            addColumn(connection, statement, "short_value", "VARCHAR(255) NULL");
+            
+            backfill(connection);
+            
+            // Indexes are built after the backfill so the updates do not maintain them row by row
+            addIndex(connection, statement, "idx_response_entries_field_numeric", "form_field_id, numeric_value");
+            addIndex(connection, statement, "idx_response_entries_field_date", "form_field_id, date_value");
+            addIndex(connection, statement, "idx_response_entries_field_short", "form_field_id, short_value");
+        }
+    }
+    
+    private void addColumn(Connection connection, Statement statement, String column, String definition) throws SQLException {
+        if (!SchemaInfo.hasColumn(connection, "response_entries", column)) {
+            statement.execute("ALTER TABLE response_entries ADD COLUMN " + column + " " + definition);
+        }
+    }
+    
+    private void addIndex(Connection connection, Statement statement, String index, String columns) throws SQLException {
+        if (!SchemaInfo.hasIndex(connection, "response_entries", index)) {
+            statement.execute("CREATE INDEX " + index + " ON response_entries(" + columns + ")");
+        }
+    }
+    
+    // Existing rows are converted in id ranges, each committed on its own, so no single
+    // transaction locks the whole table
+    private void backfill(Connection connection) throws SQLException {
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM response_entries")) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+        
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement select = connection.prepareStatement(CHUNK_SQL);
+             PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            for (long nextId = 0; nextId < maxId; nextId += CHUNK_SIZE) {
+                select.setLong(1, nextId);
+                select.setLong(2, nextId + CHUNK_SIZE);
+                int pending = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        if (convert(update, rs.getString(2), rs.getString(3))) {
+                            update.setLong(4, rs.getLong(1));
+                            update.addBatch();
+                            pending++;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    // Sets the typed parameters for one value; false when it has no typed form
+    private boolean convert(PreparedStatement update, String fieldType, String fieldValue) throws SQLException {
+        if (fieldValue == null) {
+            return false;
+        }
+        
+        Double number = null;
+        Date date = null;
+        String shortValue = null;
+        String value = fieldValue.trim();
+        switch (fieldType) {
+            case "NUMBER" -> {
+                if (NUMBER.matcher(value).matches()) {
+                    double parsed = Double.parseDouble(value);
+                    number = Double.isFinite(parsed) ? parsed : null;
+                }
+            }
+            case "DATE" -> {
+                if (DATE.matcher(value).matches()) {
+                    try {
+                        date = Date.valueOf(LocalDate.parse(value));
+                    } catch (DateTimeParseException e) {
+                        // Not a calendar date, left untyped
+                    }
+                }
+            }
+            default -> shortValue = fieldValue.length() <= SHORT_VALUE_LENGTH ? fieldValue : null;
+        }
+        if (number == null && date == null && shortValue == null) {
+            return false;
+        }
+        
+        if (number != null) {
+            update.setDouble(1, number);
+        } else {
+            update.setNull(1, Types.DOUBLE);
+        }
+        update.setDate(2, date);
+        update.setString(3, shortValue);
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.formmanagement.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Composite indexes matching the repository queries. Each index leads with the equality
+// columns of its queries and ends with the sort column, so lookups and ORDER BY ... LIMIT
+// pages are served from the index without a filesort. Indexes that already exist are kept,
+// and the superseded single-column indexes are only dropped where they exist: schemas
+// created by ddl-auto never had the idx_* names.
+@Component
+public class V4__composite_indexes extends BaseJavaMigration {
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // ResponseRepository: per-form listing, date range and keyset pages
+            // (WHERE form_id = ? [AND submitted_at ...] ORDER BY submitted_at DESC, id DESC), and COUNT per form
+            createIndex(connection, statement, "responses", "idx_responses_form_submitted", "form_id, submitted_at, id");
+            
+            // ResponseRepository: duplicate and limit checks by respondent, distinct respondent emails per form
+            createIndex(connection, statement, "responses", "idx_responses_form_email", "form_id, respondent_email");
+            
+            // FormRepository: a creator's active forms, newest first
+            createIndex(connection, statement, "forms", "idx_forms_creator_active_created", "creator_id, is_active, created_at");
+            
+            // FormRepository: public active forms, newest first (expires_at is checked on the index rows)
+            createIndex(connection, statement, "forms", "idx_forms_public_active_created",
+                        "is_public, is_active, created_at, expires_at");
+            
+            // FormFieldRepository: fields of one or more forms in display order
+            createIndex(connection, statement, "form_fields", "idx_form_fields_form_order", "form_id, field_order");
+            
+            // The composites above start with these columns, so the single-column indexes are redundant
+            // (the foreign keys on form_id and creator_id are served by the composites)
+            dropIndex(connection, statement, "responses", "idx_responses_form");
+            dropIndex(connection, statement, "forms", "idx_forms_creator");
+            dropIndex(connection, statement, "forms", "idx_forms_public");
+            dropIndex(connection, statement, "form_fields", "idx_form_fields_form");
+        }
+    }
+    
+    private void createIndex(Connection connection, Statement statement, String table, String index,
+                             String columns) throws SQLException {
+        if (!SchemaInfo.hasIndex(connection, table, index)) {
+            statement.execute("CREATE INDEX " + index + " ON " + table + "(" + columns + ")");
+        }
+    }
+    
+    private void dropIndex(Connection connection, Statement statement, String table, String index) throws SQLException {
+        if (SchemaInfo.hasIndex(connection, table, index)) {
+            statement.execute("DROP INDEX " + index + " ON " + table);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.formmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Checkpoint for the analytics backfill of one form. lastEntryId advances in the same
+// transaction that adds a round's aggregates, so a restarted job never counts an entry twice.
+@Entity
+@Table(name = "analytics_backfill_jobs")
+public class AnalyticsBackfillJob {
+    
+    @Id
+    @Column(name = "form_id")
+    private Long formId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @Column(name = "entry_high_water_mark", nullable = false)
+    private Long entryHighWaterMark;
+    
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+    
+    @Column(name = "total_entries", nullable = false)
+    private Long totalEntries;
+    
+    @Column(name = "processed_entries", nullable = false)
+    private Long processedEntries;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public AnalyticsBackfillJob() {}
+    
+    public AnalyticsBackfillJob(Long formId) {
+        this.formId = formId;
+    }
+    
+    // Getters and Setters
+    public Long getFormId() {
+        return formId;
+    }
+    
+    public void setFormId(Long formId) {
+        this.formId = formId;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public Long getEntryHighWaterMark() {
+        return entryHighWaterMark;
+    }
+    
+    public void setEntryHighWaterMark(Long entryHighWaterMark) {
+        this.entryHighWaterMark = entryHighWaterMark;
+    }
+    
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+    
+    public void setLastEntryId(Long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+    
+    public Long getTotalEntries() {
+        return totalEntries;
+    }
+    
+    public void setTotalEntries(Long totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+    
+    public Long getProcessedEntries() {
+        return processedEntries;
+    }
+    
+    public void setProcessedEntries(Long processedEntries) {
+        this.processedEntries = processedEntries;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
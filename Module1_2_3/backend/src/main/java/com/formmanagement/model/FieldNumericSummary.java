@@ -0,0 +1,68 @@
+package com.formmanagement.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "form_analytics_numeric")
+public class FieldNumericSummary {
+    
+    @Id
+    @Column(name = "form_field_id")
+    private Long formFieldId;
+    
+    @Column(name = "value_count", nullable = false)
+    private Long valueCount;
+    
+    @Column(name = "value_sum", nullable = false)
+    private Double valueSum;
+    
+    @Column(name = "min_value")
+    private Double minValue;
+    
+    @Column(name = "max_value")
+    private Double maxValue;
+    
+    // Constructors
+    public FieldNumericSummary() {}
+    
+    // Getters and Setters
+    public Long getFormFieldId() {
+        return formFieldId;
+    }
+    
+    public void setFormFieldId(Long formFieldId) {
+        this.formFieldId = formFieldId;
+    }
+    
+    public Long getValueCount() {
+        return valueCount;
+    }
+    
+    public void setValueCount(Long valueCount) {
+        this.valueCount = valueCount;
+    }
+    
+    public Double getValueSum() {
+        return valueSum;
+    }
+    
+    public void setValueSum(Double valueSum) {
+        this.valueSum = valueSum;
+    }
+    
+    public Double getMinValue() {
+        return minValue;
+    }
+    
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+    
+    public Double getMaxValue() {
+        return maxValue;
+    }
+    
+    public void setMaxValue(Double maxValue) {
+        this.maxValue = maxValue;
+    }
+}
@@ -0,0 +1,75 @@
+package com.formmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@Table(name = "form_analytics_options")
+public class FieldOptionCount {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "response_count", nullable = false)
+    private Long responseCount;
+    
+    // Constructors
+    public FieldOptionCount() {}
+    
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+    
+    public void setId(Key id) {
+        this.id = id;
+    }
+    
+    public Long getResponseCount() {
+        return responseCount;
+    }
+    
+    public void setResponseCount(Long responseCount) {
+        this.responseCount = responseCount;
+    }
+    
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "form_field_id")
+        private Long formFieldId;
+        
+        @Column(name = "option_value", length = 255)
+        private String optionValue;
+        
+        public Key() {}
+        
+        public Key(Long formFieldId, String optionValue) {
+            this.formFieldId = formFieldId;
+            this.optionValue = optionValue;
+        }
+        
+        public Long getFormFieldId() {
+            return formFieldId;
+        }
+        
+        public String getOptionValue() {
+            return optionValue;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(formFieldId, key.formFieldId) && Objects.equals(optionValue, key.optionValue);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(formFieldId, optionValue);
+        }
+    }
+}
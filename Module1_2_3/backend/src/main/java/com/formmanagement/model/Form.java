@@ -12,7 +12,9 @@ import java.util.List;
 public class Form {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "form_id")
+    @TableGenerator(name = "form_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "forms", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -11,7 +11,9 @@ import java.util.List;
 public class FormField {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "form_field_id")
+    @TableGenerator(name = "form_field_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "form_fields", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
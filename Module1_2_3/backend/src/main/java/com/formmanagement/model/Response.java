@@ -10,7 +10,9 @@ import java.util.List;
 public class Response {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "response_id")
+    @TableGenerator(name = "response_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "responses", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,12 +41,19 @@ public class Response {
     @Column(name = "is_duplicate")
     private Boolean isDuplicate = false;
     
+    // Set for submissions that came through the ingestion queue
+    @Column(name = "receipt_id", unique = true, length = 36)
+    private String receiptId;
+    
     @OneToMany(mappedBy = "response", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ResponseEntry> entries;
     
     @PrePersist
     protected void onCreate() {
-        submittedAt = LocalDateTime.now();
+        // Queued submissions keep the time they were accepted
+        if (submittedAt == null) {
+            submittedAt = LocalDateTime.now();
+        }
     }
     
     // Constructors
@@ -130,6 +139,14 @@ public class Response {
         this.isDuplicate = isDuplicate;
     }
     
+    public String getReceiptId() {
+        return receiptId;
+    }
+    
+    public void setReceiptId(String receiptId) {
+        this.receiptId = receiptId;
+    }
+    
     public List<ResponseEntry> getEntries() {
         return entries;
     }
@@ -1,13 +1,30 @@
 package com.formmanagement.model;
 
+import com.formmanagement.util.DateUtils;
+import com.formmanagement.util.NumberUtils;
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// fieldValue keeps the answer as submitted. Depending on the field type the answer is also
+// stored in a typed column, so range filters and aggregates can use an index instead of
+// parsing text: NUMBER in numericValue, DATE in dateValue, and short single-valued answers
+// (TEXT, EMAIL, RADIO, DROPDOWN) in shortValue.
 @Entity
-@Table(name = "response_entries")
+@Table(name = "response_entries", indexes = {
+    @Index(name = "idx_response_entries_field_numeric", columnList = "form_field_id, numeric_value"),
+    @Index(name = "idx_response_entries_field_date", columnList = "form_field_id, date_value"),
+    @Index(name = "idx_response_entries_field_short", columnList = "form_field_id, short_value")
+})
 public class ResponseEntry {
     
+    public static final int SHORT_VALUE_LENGTH = 255;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "response_entry_id")
+    @TableGenerator(name = "response_entry_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "response_entries", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,6 +38,15 @@ public class ResponseEntry {
     @Column(name = "field_value", columnDefinition = "TEXT")
     private String fieldValue;
     
+    @Column(name = "numeric_value")
+    private Double numericValue;
+    
+    @Column(name = "date_value")
+    private LocalDateTime dateValue;
+    
+    @Column(name = "short_value", length = SHORT_VALUE_LENGTH)
+    private String shortValue;
+    
     // Constructors
     public ResponseEntry() {}
     
@@ -28,6 +54,35 @@ public class ResponseEntry {
         this.response = response;
         this.formField = formField;
         this.fieldValue = fieldValue;
+        deriveTypedValues();
+    }
+    
+    private void deriveTypedValues() {
+        numericValue = null;
+        dateValue = null;
+        shortValue = null;
+        if (formField == null || fieldValue == null || fieldValue.isBlank()) {
+            return;
+        }
+        
+        String value = fieldValue.trim();
+        switch (formField.getFieldType()) {
+            // Left untyped when it is not a finite decimal; the text is still in fieldValue
+            case NUMBER -> numericValue = NumberUtils.parseDecimal(value);
+            // Parsed the way FieldValidator accepts it, so every valid answer is typed
+            case DATE -> {
+                LocalDate date = DateUtils.parseDate(value);
+                dateValue = date != null ? date.atStartOfDay() : null;
+            }
+            case TEXT, EMAIL, RADIO, DROPDOWN -> {
+                if (fieldValue.length() <= SHORT_VALUE_LENGTH) {
+                    shortValue = fieldValue;
+                }
+            }
+            default -> {
+                // Long text and multi-valued answers only live in fieldValue
+            }
+        }
     }
     
     // Getters and Setters
@@ -53,13 +108,40 @@ public class ResponseEntry {
     
     public void setFormField(FormField formField) {
         this.formField = formField;
+        deriveTypedValues();
     }
     
     public String getFieldValue() {
         return fieldValue;
     }
     
+    // The typed columns always follow the submitted text
     public void setFieldValue(String fieldValue) {
         this.fieldValue = fieldValue;
+        deriveTypedValues();
+    }
+    
+    public Double getNumericValue() {
+        return numericValue;
+    }
+    
+    public void setNumericValue(Double numericValue) {
+        this.numericValue = numericValue;
+    }
+    
+    public LocalDateTime getDateValue() {
+        return dateValue;
+    }
+    
+    public void setDateValue(LocalDateTime dateValue) {
+        this.dateValue = dateValue;
+    }
+    
+    public String getShortValue() {
+        return shortValue;
+    }
+    
+    public void setShortValue(String shortValue) {
+        this.shortValue = shortValue;
     }
 }
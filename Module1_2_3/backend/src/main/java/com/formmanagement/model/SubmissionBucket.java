@@ -0,0 +1,76 @@
+package com.formmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "form_analytics_hourly")
+public class SubmissionBucket {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "submission_count", nullable = false)
+    private Long submissionCount;
+    
+    // Constructors
+    public SubmissionBucket() {}
+    
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+    
+    public void setId(Key id) {
+        this.id = id;
+    }
+    
+    public Long getSubmissionCount() {
+        return submissionCount;
+    }
+    
+    public void setSubmissionCount(Long submissionCount) {
+        this.submissionCount = submissionCount;
+    }
+    
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "form_id")
+        private Long formId;
+        
+        @Column(name = "bucket_start")
+        private LocalDateTime bucketStart;
+        
+        public Key() {}
+        
+        public Key(Long formId, LocalDateTime bucketStart) {
+            this.formId = formId;
+            this.bucketStart = bucketStart;
+        }
+        
+        public Long getFormId() {
+            return formId;
+        }
+        
+        public LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(formId, key.formId) && Objects.equals(bucketStart, key.bucketStart);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(formId, bucketStart);
+        }
+    }
+}
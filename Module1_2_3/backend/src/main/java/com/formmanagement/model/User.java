@@ -15,10 +15,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generators", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -33,7 +36,7 @@ public class User implements UserDetails {
     private String email;
     
     @NotBlank
-    @Size(max = 100)
+    @Size(max = 255)
     private String password;
     
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,23 @@
+package com.formmanagement.model;
+
+import com.formmanagement.service.UserPrincipalCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserChangeListener {
+    
+    @Autowired
+    @Lazy
+    private UserPrincipalCache userPrincipalCache;
+    
+    // Drops cached principals whenever a user row changes, e.g. role or password updates
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userPrincipalCache.evict(user.getUsername());
+    }
+}
@@ -0,0 +1,20 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.model.AnalyticsBackfillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalyticsBackfillJobRepository extends JpaRepository<AnalyticsBackfillJob, Long> {
+    
+    // Only moves the checkpoint if nobody else did, so a stale worker cannot double count a round
+    @Modifying
+    @Query("UPDATE AnalyticsBackfillJob j SET j.lastEntryId = :toId, j.processedEntries = j.processedEntries + :entries, " +
+           "j.updatedAt = CURRENT_TIMESTAMP WHERE j.formId = :formId AND j.lastEntryId = :fromId " +
+           "AND j.status = :status")
+    int advanceCheckpoint(@Param("formId") Long formId, @Param("status") AnalyticsBackfillJob.Status status,
+                          @Param("fromId") Long fromId, @Param("toId") Long toId, @Param("entries") Long entries);
+}
@@ -0,0 +1,9 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.model.FieldNumericSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FieldNumericSummaryRepository extends JpaRepository<FieldNumericSummary, Long> {
+}
@@ -0,0 +1,17 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.model.FieldOptionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FieldOptionCountRepository extends JpaRepository<FieldOptionCount, FieldOptionCount.Key> {
+    
+    @Query("SELECT c FROM FieldOptionCount c WHERE c.id.formFieldId IN :fieldIds ORDER BY c.id.formFieldId, c.responseCount DESC")
+    List<FieldOptionCount> findByFieldIds(@Param("fieldIds") Collection<Long> fieldIds);
+}
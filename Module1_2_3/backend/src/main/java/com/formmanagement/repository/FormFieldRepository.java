@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,4 +19,7 @@ public interface FormFieldRepository extends JpaRepository<FormField, Long> {
     
     @Query("SELECT ff FROM FormField ff WHERE ff.form = :form ORDER BY ff.fieldOrder ASC")
     List<FormField> findFieldsByFormOrdered(@Param("form") Form form);
+    
+    @Query("SELECT ff FROM FormField ff WHERE ff.form.id IN :formIds ORDER BY ff.form.id, ff.fieldOrder ASC")
+    List<FormField> findFieldsByFormIdsOrdered(@Param("formIds") Collection<Long> formIds);
 }
@@ -2,6 +2,8 @@ package com.formmanagement.repository;
 
 import com.formmanagement.model.Form;
 import com.formmanagement.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,12 +23,20 @@ public interface FormRepository extends JpaRepository<Form, Long> {
     
     Optional<Form> findByIdAndIsActive(Long id, Boolean isActive);
     
-    @Query("SELECT f FROM Form f WHERE f.creator = :creator AND f.isActive = true ORDER BY f.createdAt DESC")
+    @Query("SELECT f FROM Form f JOIN FETCH f.creator WHERE f.creator = :creator AND f.isActive = true ORDER BY f.createdAt DESC")
     List<Form> findActiveFormsByCreator(@Param("creator") User creator);
     
-    @Query("SELECT f FROM Form f WHERE f.isPublic = true AND f.isActive = true AND (f.expiresAt IS NULL OR f.expiresAt > CURRENT_TIMESTAMP) ORDER BY f.createdAt DESC")
+    @Query(value = "SELECT f FROM Form f JOIN FETCH f.creator WHERE f.creator = :creator AND f.isActive = true ORDER BY f.createdAt DESC",
+           countQuery = "SELECT COUNT(f) FROM Form f WHERE f.creator = :creator AND f.isActive = true")
+    Page<Form> findActiveFormsByCreator(@Param("creator") User creator, Pageable pageable);
+    
+    @Query("SELECT f FROM Form f JOIN FETCH f.creator WHERE f.isPublic = true AND f.isActive = true AND (f.expiresAt IS NULL OR f.expiresAt > CURRENT_TIMESTAMP) ORDER BY f.createdAt DESC")
     List<Form> findPublicActiveForms();
     
+    @Query(value = "SELECT f FROM Form f JOIN FETCH f.creator WHERE f.isPublic = true AND f.isActive = true AND (f.expiresAt IS NULL OR f.expiresAt > CURRENT_TIMESTAMP) ORDER BY f.createdAt DESC",
+           countQuery = "SELECT COUNT(f) FROM Form f WHERE f.isPublic = true AND f.isActive = true AND (f.expiresAt IS NULL OR f.expiresAt > CURRENT_TIMESTAMP)")
+    Page<Form> findPublicActiveForms(Pageable pageable);
+    
     @Query("SELECT COUNT(r) FROM Response r WHERE r.form = :form")
     Long countResponsesByForm(@Param("form") Form form);
 }
@@ -0,0 +1,43 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.model.OutboxMail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+    
+    // Rows locked by another dispatcher are skipped rather than waited for, so several
+    // instances can drain the outbox concurrently without sending a mail twice
+    @Query(value = "SELECT * FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMail> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.nextAttemptAt = :leaseUntil WHERE m.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = :status, " +
+           "m.attempts = m.attempts + 1, m.sentAt = :sentAt, m.lastError = NULL WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("status") OutboxMail.Status status,
+                 @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = :status, m.attempts = :attempts, m.nextAttemptAt = :nextAttemptAt, " +
+           "m.lastError = :lastError WHERE m.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("status") OutboxMail.Status status,
+                          @Param("attempts") Integer attempts, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("lastError") String lastError);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxMail m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteSentBefore(@Param("status") OutboxMail.Status status, @Param("before") LocalDateTime before);
+}
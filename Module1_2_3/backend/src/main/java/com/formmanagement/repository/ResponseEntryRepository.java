@@ -1,11 +1,15 @@
 package com.formmanagement.repository;
 
+import com.formmanagement.dto.ResponseEntryDto;
 import com.formmanagement.model.FormField;
 import com.formmanagement.model.Response;
 import com.formmanagement.model.ResponseEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +20,8 @@ public interface ResponseEntryRepository extends JpaRepository<ResponseEntry, Lo
     List<ResponseEntry> findByFormField(FormField formField);
     
     List<ResponseEntry> findByResponseAndFormField(Response response, FormField formField);
+    
+    @Query("SELECT new com.formmanagement.dto.ResponseEntryDto(e.id, e.response.id, e.formField.id, e.fieldValue) " +
+           "FROM ResponseEntry e WHERE e.response.id IN :responseIds ORDER BY e.id")
+    List<ResponseEntryDto> findDtosByResponseIds(@Param("responseIds") Collection<Long> responseIds);
 }
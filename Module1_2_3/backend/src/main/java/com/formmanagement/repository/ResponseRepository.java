@@ -1,21 +1,34 @@
 package com.formmanagement.repository;
 
+import com.formmanagement.dto.ResponseDto;
 import com.formmanagement.model.Form;
 import com.formmanagement.model.Response;
 import com.formmanagement.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ResponseRepository extends JpaRepository<Response, Long> {
     
     List<Response> findByForm(Form form);
     
+    boolean existsByReceiptId(String receiptId);
+    
+    @Query("SELECT r.receiptId FROM Response r WHERE r.receiptId IN :receiptIds")
+    Set<String> findExistingReceiptIds(@Param("receiptIds") Collection<String> receiptIds);
+    
     List<Response> findByFormOrderBySubmittedAtDesc(Form form);
     
     List<Response> findByUser(User user);
@@ -25,6 +38,40 @@ public interface ResponseRepository extends JpaRepository<Response, Long> {
                                         @Param("startDate") LocalDateTime startDate, 
                                         @Param("endDate") LocalDateTime endDate);
     
+    @Query("SELECT new com.formmanagement.dto.ResponseDto(r.id, r.form.id, r.user.id, r.respondentEmail, r.respondentName, " +
+           "r.ipAddress, r.submittedAt, r.isDuplicate) FROM Response r WHERE r.form = :form ORDER BY r.submittedAt DESC")
+    List<ResponseDto> findDtosByFormOrderBySubmittedAtDesc(@Param("form") Form form);
+    
+    @Query("SELECT new com.formmanagement.dto.ResponseDto(r.id, r.form.id, r.user.id, r.respondentEmail, r.respondentName, " +
+           "r.ipAddress, r.submittedAt, r.isDuplicate) FROM Response r " +
+           "WHERE r.form = :form AND r.submittedAt BETWEEN :startDate AND :endDate ORDER BY r.submittedAt DESC")
+    List<ResponseDto> findDtosByFormAndDateRange(@Param("form") Form form,
+                                                @Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new com.formmanagement.dto.ResponseDto(r.id, r.form.id, r.user.id, r.respondentEmail, r.respondentName, " +
+           "r.ipAddress, r.submittedAt, r.isDuplicate) FROM Response r " +
+           "WHERE r.form = :form ORDER BY r.submittedAt DESC, r.id DESC")
+    List<ResponseDto> findFirstDtoPageByForm(@Param("form") Form form, Pageable pageable);
+    
+    @Query("SELECT new com.formmanagement.dto.ResponseDto(r.id, r.form.id, r.user.id, r.respondentEmail, r.respondentName, " +
+           "r.ipAddress, r.submittedAt, r.isDuplicate) FROM Response r " +
+           "WHERE r.form = :form AND (r.submittedAt < :submittedAt OR (r.submittedAt = :submittedAt AND r.id < :id)) " +
+           "ORDER BY r.submittedAt DESC, r.id DESC")
+    List<ResponseDto> findDtoPageByFormAfter(@Param("form") Form form,
+                                            @Param("submittedAt") LocalDateTime submittedAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    @Query("SELECT new com.formmanagement.dto.ResponseDto(r.id, r.form.id, r.user.id, r.respondentEmail, r.respondentName, " +
+           "r.ipAddress, r.submittedAt, r.isDuplicate) FROM Response r " +
+           "WHERE r.id IN :ids ORDER BY r.submittedAt DESC, r.id DESC")
+    List<ResponseDto> findDtosByIds(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Response r WHERE r.form = :form ORDER BY r.submittedAt DESC, r.id DESC")
+    Stream<Response> streamByForm(@Param("form") Form form);
+    
     @Query("SELECT r FROM Response r WHERE r.form = :form AND r.respondentEmail = :email")
     List<Response> findByFormAndRespondentEmail(@Param("form") Form form, @Param("email") String email);
     
@@ -33,4 +80,7 @@ public interface ResponseRepository extends JpaRepository<Response, Long> {
     
     @Query("SELECT COUNT(r) FROM Response r WHERE r.form = :form AND r.respondentEmail = :email")
     Long countByFormAndEmail(@Param("form") Form form, @Param("email") String email);
+    
+    @Query("SELECT DISTINCT r.respondentEmail FROM Response r WHERE r.form = :form AND r.respondentEmail IS NOT NULL")
+    List<String> findRespondentEmailsByForm(@Param("form") Form form);
 }
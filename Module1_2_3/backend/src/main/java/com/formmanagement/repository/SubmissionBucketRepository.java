@@ -0,0 +1,16 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.model.SubmissionBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubmissionBucketRepository extends JpaRepository<SubmissionBucket, SubmissionBucket.Key> {
+    
+    @Query("SELECT b FROM SubmissionBucket b WHERE b.id.formId = :formId ORDER BY b.id.bucketStart")
+    List<SubmissionBucket> findByFormId(@Param("formId") Long formId);
+}
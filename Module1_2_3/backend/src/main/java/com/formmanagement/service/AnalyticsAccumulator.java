@@ -0,0 +1,155 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.FormField;
+import com.formmanagement.util.NumberUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mergeable partial aggregates for one form: option histograms for choice fields, numeric
+// summaries for NUMBER fields and submission counts per hour. Not thread-safe; parallel
+// producers each fill their own instance and merge the results.
+public class AnalyticsAccumulator {
+    
+    static final int MAX_OPTION_LENGTH = 255;
+    
+    private final Map<Long, Map<String, Long>> optionCounts = new HashMap<>();
+    private final Map<Long, NumericStats> numericStats = new HashMap<>();
+    private final Map<LocalDateTime, Long> hourlyCounts = new HashMap<>();
+    
+    public void addSubmission(LocalDateTime submittedAt) {
+        hourlyCounts.merge(submittedAt.truncatedTo(ChronoUnit.HOURS), 1L, Long::sum);
+    }
+    
+    public void addValue(FormField field, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        
+        switch (field.getFieldType()) {
+            case RADIO, DROPDOWN -> addOption(field.getId(), value);
+            case CHECKBOX -> selectedOptions(field.getOptions(), value).forEach(option -> addOption(field.getId(), option));
+            case NUMBER -> {
+                // Non-numeric and non-finite answers are not part of the summary
+                Double number = NumberUtils.parseDecimal(value);
+                if (number != null) {
+                    numericStats.computeIfAbsent(field.getId(), id -> new NumericStats()).add(number);
+                }
+            }
+            default -> {
+                // Free-text fields are not aggregated
+            }
+        }
+    }
+    
+    public AnalyticsAccumulator merge(AnalyticsAccumulator other) {
+        other.optionCounts.forEach((fieldId, counts) -> {
+            Map<String, Long> target = optionCounts.computeIfAbsent(fieldId, id -> new HashMap<>());
+            counts.forEach((option, count) -> target.merge(option, count, Long::sum));
+        });
+        other.numericStats.forEach((fieldId, stats) ->
+                numericStats.computeIfAbsent(fieldId, id -> new NumericStats()).merge(stats));
+        other.hourlyCounts.forEach((bucket, count) -> hourlyCounts.merge(bucket, count, Long::sum));
+        return this;
+    }
+    
+    public static boolean isAggregated(FormField.FieldType fieldType) {
+        return switch (fieldType) {
+            case RADIO, DROPDOWN, CHECKBOX, NUMBER -> true;
+            default -> false;
+        };
+    }
+    
+    public boolean isEmpty() {
+        return optionCounts.isEmpty() && numericStats.isEmpty() && hourlyCounts.isEmpty();
+    }
+    
+    public Map<Long, Map<String, Long>> getOptionCounts() {
+        return optionCounts;
+    }
+    
+    public Map<Long, NumericStats> getNumericStats() {
+        return numericStats;
+    }
+    
+    public Map<LocalDateTime, Long> getHourlyCounts() {
+        return hourlyCounts;
+    }
+    
+    private void addOption(Long fieldId, String option) {
+        String key = option.length() > MAX_OPTION_LENGTH ? option.substring(0, MAX_OPTION_LENGTH) : option;
+        optionCounts.computeIfAbsent(fieldId, id -> new HashMap<>()).merge(key, 1L, Long::sum);
+    }
+    
+    // Checkbox answers are stored as the list's string form, e.g. "[Red, Blue]". Declared
+    // options are matched first so options that themselves contain ", " are not split.
+    static List<String> selectedOptions(String declaredOptions, String value) {
+        List<String> selected = new ArrayList<>();
+        String inner = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+        if (inner.isBlank()) {
+            return selected;
+        }
+        
+        if (declaredOptions != null && !declaredOptions.isBlank()) {
+            String padded = ", " + inner + ", ";
+            for (String option : declaredOptions.split("\n")) {
+                String trimmed = option.trim();
+                if (!trimmed.isEmpty() && padded.contains(", " + trimmed + ", ")) {
+                    selected.add(trimmed);
+                }
+            }
+            if (!selected.isEmpty()) {
+                return selected;
+            }
+        }
+        
+        for (String option : inner.split(", ")) {
+            if (!option.isBlank()) {
+                selected.add(option.trim());
+            }
+        }
+        return selected;
+    }
+    
+    public static class NumericStats {
+        
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        
+        public void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        
+        public void merge(NumericStats other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public double getSum() {
+            return sum;
+        }
+        
+        public double getMin() {
+            return min;
+        }
+        
+        public double getMax() {
+            return max;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.BackfillJobDto;
+import com.formmanagement.model.AnalyticsBackfillJob;
+import com.formmanagement.model.FormField;
+import com.formmanagement.repository.AnalyticsBackfillJobRepository;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.FormRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Rebuilds a form's analytics aggregates from its stored responses. A new job opens the
+// form's fence in FormAnalyticsService, then resets the aggregates and records the responses
+// that had committed by then in analytics_backfill_responses, leaving out those registered
+// with the fence. The fence is closed as soon as that commits: its held deltas and those of
+// every later submission go through the incremental path, and the scan only counts the
+// recorded responses, whatever order the pooled id generator handed out ids in. Their entries
+// are processed in rounds of roundSize entries; each round is aggregated in parallel on a
+// ForkJoinPool and committed together with the job checkpoint. A failed or interrupted job,
+// including one cut off by a restart, resumes from the last committed round.
+@Service
+public class AnalyticsBackfillService {
+    
+    private static final String RECORD_RESPONSES_SQL =
+            "INSERT INTO analytics_backfill_responses (form_id, response_id) " +
+            "SELECT form_id, id FROM responses WHERE form_id = :formId";
+    
+    private static final String UNRECORD_RESPONSES_SQL =
+            "DELETE FROM analytics_backfill_responses WHERE form_id = :formId AND response_id IN (:responseIds)";
+    
+    private static final String CLEAR_RESPONSES_SQL =
+            "DELETE FROM analytics_backfill_responses WHERE form_id = :formId";
+    
+    private static final String ENTRY_RANGE_SQL =
+            "SELECT COALESCE(MAX(e.id), 0) AS max_id, COUNT(*) AS total FROM response_entries e " +
+            "JOIN analytics_backfill_responses b ON b.form_id = :formId AND b.response_id = e.response_id " +
+            "WHERE e.form_field_id IN (:fieldIds)";
+    
+    private static final String ROUND_END_SQL =
+            "SELECT e.id FROM response_entries e " +
+            "WHERE e.form_field_id IN (:fieldIds) AND e.id > :afterId AND e.id <= :toId " +
+            "ORDER BY e.id LIMIT 1 OFFSET :offset";
+    
+    private static final String SUBMITTED_AT_SQL =
+            "SELECT r.submitted_at FROM responses r " +
+            "JOIN analytics_backfill_responses b ON b.form_id = r.form_id AND b.response_id = r.id " +
+            "WHERE r.form_id = :formId";
+    
+    // Keeps the IN list of the fenced responses well under database parameter limits
+    private static final int UNRECORD_CHUNK_SIZE = 1000;
+    
+    @Value("${analytics.backfill.parallelism}")
+    private int parallelism;
+    
+    @Value("${analytics.backfill.round-size}")
+    private int roundSize;
+    
+    @Value("${analytics.backfill.page-size}")
+    private int pageSize;
+    
+    @Autowired
+    private FormRepository formRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private AnalyticsBackfillJobRepository jobRepository;
+    
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    
+    private ForkJoinPool forkJoinPool;
+    
+    private ExecutorService coordinator;
+    
+    private volatile boolean stopping;
+    
+    @PostConstruct
+    public void start() {
+        forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        coordinator = Executors.newCachedThreadPool(new CustomizableThreadFactory("analytics-backfill-"));
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Running jobs stop after their current round and resume from there when started again
+        stopping = true;
+        coordinator.shutdown();
+        coordinator.awaitTermination(30, TimeUnit.SECONDS);
+        forkJoinPool.shutdownNow();
+    }
+    
+    // Resumes an unfinished job for the form, or resets the aggregates and starts a new one
+    // when there is none, the last one completed, or restart is requested.
+    public BackfillJobDto startBackfill(Long formId, boolean restart) {
+        if (!formRepository.existsById(formId)) {
+            throw new RuntimeException("Form not found");
+        }
+        
+        if (!runningJobs.add(formId)) {
+            throw new RuntimeException("A backfill is already running for this form");
+        }
+        
+        try {
+            AnalyticsBackfillJob job = transactionTemplate.execute(status -> restart ? null : resume(formId));
+            if (job == null) {
+                Set<Long> fencedResponses = formAnalyticsService.openFence(formId);
+                try {
+                    job = transactionTemplate.execute(status -> prepare(formId, fencedResponses));
+                } finally {
+                    formAnalyticsService.closeFence(formId);
+                }
+            }
+            coordinator.submit(() -> run(formId));
+            return new BackfillJobDto(job, true);
+        } catch (RuntimeException e) {
+            runningJobs.remove(formId);
+            throw e;
+        }
+    }
+    
+    public BackfillJobDto getBackfillStatus(Long formId) {
+        AnalyticsBackfillJob job = jobRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("No backfill has been started for this form"));
+        return new BackfillJobDto(job, runningJobs.contains(formId));
+    }
+    
+    // The unfinished job of the form, set running again, or null when there is none
+    private AnalyticsBackfillJob resume(Long formId) {
+        AnalyticsBackfillJob existing = jobRepository.findById(formId).orElse(null);
+        if (existing == null || existing.getStatus() == AnalyticsBackfillJob.Status.COMPLETED) {
+            return null;
+        }
+        existing.setStatus(AnalyticsBackfillJob.Status.RUNNING);
+        existing.setErrorMessage(null);
+        return jobRepository.save(existing);
+    }
+    
+    private AnalyticsBackfillJob prepare(Long formId, Set<Long> fencedResponses) {
+        // Every response that missed the fence has committed by now, so it is recorded below
+        formAnalyticsService.resetForForm(formId);
+        
+        // A response registered with the fence before it committed may be visible to the insert,
+        // but its deltas are held, so it is taken out again. The set is read after the insert.
+        MapSqlParameterSource byForm = new MapSqlParameterSource("formId", formId);
+        jdbcTemplate.update(CLEAR_RESPONSES_SQL, byForm);
+        jdbcTemplate.update(RECORD_RESPONSES_SQL, byForm);
+        List<Long> fenced = List.copyOf(fencedResponses);
+        for (int i = 0; i < fenced.size(); i += UNRECORD_CHUNK_SIZE) {
+            jdbcTemplate.update(UNRECORD_RESPONSES_SQL, new MapSqlParameterSource("formId", formId)
+                    .addValue("responseIds", fenced.subList(i, Math.min(i + UNRECORD_CHUNK_SIZE, fenced.size()))));
+        }
+        
+        Map<Long, FormField> fields = aggregatedFields(formId);
+        long highWaterMark = 0;
+        long totalEntries = 0;
+        if (!fields.isEmpty()) {
+            Map<String, Object> range = jdbcTemplate.queryForMap(ENTRY_RANGE_SQL,
+                    new MapSqlParameterSource("formId", formId).addValue("fieldIds", fields.keySet()));
+            highWaterMark = ((Number) range.get("max_id")).longValue();
+            totalEntries = ((Number) range.get("total")).longValue();
+        }
+        
+        // Hourly buckets count responses, not entries, and are cheap enough to rebuild in one pass
+        AnalyticsAccumulator submissions = new AnalyticsAccumulator();
+        jdbcTemplate.query(SUBMITTED_AT_SQL, byForm,
+                (RowCallbackHandler) rs -> submissions.addSubmission(rs.getTimestamp(1).toLocalDateTime()));
+        formAnalyticsService.apply(formId, submissions);
+        
+        AnalyticsBackfillJob job = jobRepository.findById(formId).orElseGet(() -> new AnalyticsBackfillJob(formId));
+        job.setStatus(AnalyticsBackfillJob.Status.RUNNING);
+        job.setEntryHighWaterMark(highWaterMark);
+        job.setLastEntryId(0L);
+        job.setTotalEntries(totalEntries);
+        job.setProcessedEntries(0L);
+        job.setErrorMessage(null);
+        job.setStartedAt(LocalDateTime.now());
+        job.setCompletedAt(null);
+        return jobRepository.save(job);
+    }
+    
+    private void run(Long formId) {
+        try {
+            Map<Long, FormField> fields = aggregatedFields(formId);
+            AnalyticsBackfillJob job = jobRepository.findById(formId)
+                    .orElseThrow(() -> new RuntimeException("Backfill job not found"));
+            long lastEntryId = job.getLastEntryId();
+            long highWaterMark = job.getEntryHighWaterMark();
+            
+            while (!fields.isEmpty() && lastEntryId < highWaterMark) {
+                if (stopping) {
+                    return;
+                }
+                
+                long fromId = lastEntryId;
+                long toId = roundEnd(fields, fromId, highWaterMark);
+                long leafSpan = (toId - fromId) / (forkJoinPool.getParallelism() * 4L);
+                AnalyticsBackfillTask.Result result = forkJoinPool.invoke(
+                        new AnalyticsBackfillTask(jdbcTemplate, formId, fields, fromId, toId, leafSpan, pageSize));
+                
+                transactionTemplate.executeWithoutResult(status -> {
+                    formAnalyticsService.apply(formId, result.getAggregates());
+                    if (jobRepository.advanceCheckpoint(formId, AnalyticsBackfillJob.Status.RUNNING,
+                            fromId, toId, result.getEntries()) == 0) {
+                        throw new RuntimeException("Backfill checkpoint moved; the job was restarted elsewhere");
+                    }
+                });
+                lastEntryId = toId;
+            }
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                jobRepository.findById(formId).ifPresent(done -> {
+                    done.setStatus(AnalyticsBackfillJob.Status.COMPLETED);
+                    done.setCompletedAt(LocalDateTime.now());
+                });
+                jdbcTemplate.update(CLEAR_RESPONSES_SQL, new MapSqlParameterSource("formId", formId));
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Analytics backfill failed for form " + formId + ": " + e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(formId).ifPresent(failed -> {
+                failed.setStatus(AnalyticsBackfillJob.Status.FAILED);
+                failed.setErrorMessage(e.getMessage());
+            }));
+        } finally {
+            runningJobs.remove(formId);
+        }
+    }
+    
+    // Id of the roundSize-th entry after fromId, or the high-water mark for the final round
+    private long roundEnd(Map<Long, FormField> fields, long fromId, long highWaterMark) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fieldIds", fields.keySet())
+                .addValue("afterId", fromId)
+                .addValue("toId", highWaterMark)
+                .addValue("offset", roundSize - 1);
+        List<Long> ids = jdbcTemplate.queryForList(ROUND_END_SQL, params, Long.class);
+        return ids.isEmpty() ? highWaterMark : ids.get(0);
+    }
+    
+    private Map<Long, FormField> aggregatedFields(Long formId) {
+        Map<Long, FormField> fields = new LinkedHashMap<>();
+        for (FormField field : formFieldRepository.findFieldsByFormIdsOrdered(List.of(formId))) {
+            if (AnalyticsAccumulator.isAggregated(field.getFieldType())) {
+                fields.put(field.getId(), field);
+            }
+        }
+        return fields;
+    }
+}
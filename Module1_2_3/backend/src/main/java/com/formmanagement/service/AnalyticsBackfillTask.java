@@ -0,0 +1,100 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.FormField;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+// Aggregates the entries of one form whose ids fall in (fromId, toId], counting only the
+// responses recorded for the form's backfill job. Ranges wider than leafSpan are halved and forked; leaves
+// read their range in keyset pages so no query holds more than pageSize rows, and partial
+// results are merged on the way back up.
+public class AnalyticsBackfillTask extends RecursiveTask<AnalyticsBackfillTask.Result> {
+    
+    private static final String SELECT_ENTRIES_SQL =
+            "SELECT e.id, e.form_field_id, e.field_value FROM response_entries e " +
+            "JOIN analytics_backfill_responses b ON b.form_id = :formId AND b.response_id = e.response_id " +
+            "WHERE e.form_field_id IN (:fieldIds) AND e.id > :afterId AND e.id <= :toId " +
+            "ORDER BY e.id LIMIT :pageSize";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Long formId;
+    private final Map<Long, FormField> fields;
+    private final long fromId;
+    private final long toId;
+    private final long leafSpan;
+    private final int pageSize;
+    
+    public AnalyticsBackfillTask(NamedParameterJdbcTemplate jdbcTemplate, Long formId, Map<Long, FormField> fields,
+                                 long fromId, long toId, long leafSpan, int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.formId = formId;
+        this.fields = fields;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.leafSpan = Math.max(1, leafSpan);
+        this.pageSize = pageSize;
+    }
+    
+    @Override
+    protected Result compute() {
+        if (toId - fromId <= leafSpan) {
+            return aggregate();
+        }
+        
+        long mid = fromId + (toId - fromId) / 2;
+        AnalyticsBackfillTask left = new AnalyticsBackfillTask(jdbcTemplate, formId, fields, fromId, mid, leafSpan, pageSize);
+        AnalyticsBackfillTask right = new AnalyticsBackfillTask(jdbcTemplate, formId, fields, mid, toId, leafSpan, pageSize);
+        left.fork();
+        Result result = right.compute();
+        return result.merge(left.join());
+    }
+    
+    private Result aggregate() {
+        Result result = new Result();
+        long afterId = fromId;
+        while (true) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("formId", formId)
+                    .addValue("fieldIds", fields.keySet())
+                    .addValue("afterId", afterId)
+                    .addValue("toId", toId)
+                    .addValue("pageSize", pageSize);
+            long[] lastId = {afterId};
+            int[] rows = {0};
+            jdbcTemplate.query(SELECT_ENTRIES_SQL, params, (RowCallbackHandler) rs -> {
+                lastId[0] = rs.getLong(1);
+                rows[0]++;
+                result.aggregates.addValue(fields.get(rs.getLong(2)), rs.getString(3));
+            });
+            result.entries += rows[0];
+            if (rows[0] < pageSize) {
+                return result;
+            }
+            afterId = lastId[0];
+        }
+    }
+    
+    public static class Result {
+        
+        private final AnalyticsAccumulator aggregates = new AnalyticsAccumulator();
+        private long entries;
+        
+        Result merge(Result other) {
+            aggregates.merge(other.aggregates);
+            entries += other.entries;
+            return this;
+        }
+        
+        public AnalyticsAccumulator getAggregates() {
+            return aggregates;
+        }
+        
+        public long getEntries() {
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FileReference;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// Local content-addressed store for uploaded files. Each blob lives at <dir>/<first two hex
+// digits>/<sha256>, so identical uploads are stored once and a stored blob never changes.
+@Service
+public class BlobStoreService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    // Request attributes Tomcat uses to hand a file region to the connector's sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    @Value("${uploads.dir}")
+    private String uploadsDir;
+    
+    private Path root;
+    
+    private Path tempDir;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        root = Paths.get(uploadsDir).toAbsolutePath();
+        tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+    }
+    
+    // Copies the stream to a temp file in fixed-size chunks while hashing it, then renames
+    // it to its hash; the upload is never held in memory as a whole
+    public FileReference store(InputStream in, String filename, String contentType) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // A concurrent upload of the same content renames identical bytes over it
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new FileReference(hash, filename, contentType, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // Serves the blob with a strong ETag and single byte-range support. Through Tomcat the
+    // region is handed to sendfile; otherwise it is copied with FileChannel.transferTo.
+    public void serve(FileReference file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = path(file.getSha256());
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("File not found");
+        }
+        
+        long length = Files.size(path);
+        String etag = "\"" + file.getSha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // A malformed Range header is ignored and the whole file is sent
+                ranges = List.of();
+            }
+            
+            // Multipart range responses are not supported; several ranges get the whole file
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    // HttpRange does not reject a first byte past the end of the file
+                    if (start >= length) {
+                        throw new IllegalArgumentException("Range starts past the end of the file");
+                    }
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        
+        response.setContentType(file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(file.getFilename() != null ? file.getFilename() : file.getSha256(), StandardCharsets.UTF_8)
+                .build().toString());
+        response.setContentLengthLong(end - start + 1);
+        if (end < start) {
+            return;
+        }
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+    
+    private Path path(String sha256) {
+        if (!FileReference.isValidHash(sha256)) {
+            throw new RuntimeException("Invalid file reference");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
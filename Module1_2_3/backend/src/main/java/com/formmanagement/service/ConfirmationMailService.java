@@ -0,0 +1,62 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.Form;
+import com.formmanagement.model.OutboxMail;
+import com.formmanagement.model.Response;
+import com.formmanagement.repository.OutboxMailRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+
+// Queues submission confirmations in the outbox. Called inside the submission transaction,
+// so adding a mail costs one batched insert instead of an SMTP round trip. Confirmations only
+// go to the signed-in respondent's account address; an address typed into a public form is
+// never mailed, so the form cannot be used to send its title to arbitrary inboxes.
+@Service
+public class ConfirmationMailService {
+    
+    private static final int MAX_SUBJECT_LENGTH = 255;
+    
+    private static final DateTimeFormatter SUBMITTED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    @Value("${mail.outbox.enabled}")
+    private boolean enabled;
+    
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+    
+    public void enqueue(Form form, Response response) {
+        String recipient = recipient(response);
+        if (!enabled || recipient == null) {
+            return;
+        }
+        
+        String subject = "We received your response to " + singleLine(form.getTitle());
+        outboxMailRepository.save(new OutboxMail(response, recipient,
+                subject.length() > MAX_SUBJECT_LENGTH ? subject.substring(0, MAX_SUBJECT_LENGTH) : subject,
+                body(form, response)));
+    }
+    
+    // The signed-in user's account address; respondentEmail is whatever the client sent
+    private String recipient(Response response) {
+        if (response.getUser() == null || response.getUser().getEmail() == null
+                || response.getUser().getEmail().isBlank()) {
+            return null;
+        }
+        return response.getUser().getEmail().trim();
+    }
+    
+    private String singleLine(String value) {
+        return value.replaceAll("\\p{Cntrl}+", " ").trim();
+    }
+    
+    private String body(Form form, Response response) {
+        String name = response.getRespondentName() != null && !response.getRespondentName().isBlank()
+                ? response.getRespondentName().trim() : "there";
+        return "Hi " + name + ",\n\n" +
+               "Thank you for completing \"" + form.getTitle() + "\". Your response was received on " +
+               response.getSubmittedAt().format(SUBMITTED_AT_FORMAT) + " (reference #" + response.getId() + ").\n";
+    }
+}
@@ -0,0 +1,279 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.dto.FileReference;
+import com.formmanagement.model.FormField;
+import com.formmanagement.util.DateUtils;
+import com.formmanagement.util.NumberUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// Immutable validator chain for one field, compiled once from its type, declared options and
+// validationRules JSON. Supported rules: pattern (full match, with an optional message),
+// minLength, maxLength, min and max. Each submitted value runs through the chain in order
+// and the first failing rule is reported.
+public final class FieldValidator {
+    
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    
+    // Patterns come from form creators and run on request threads, so the input they see is
+    // bounded and patterns that can backtrack exponentially are refused when the form is saved
+    static final int MAX_PATTERN_INPUT_LENGTH = 1000;
+    
+    private final Long fieldId;
+    private final String label;
+    private final boolean required;
+    private final List<Rule> rules;
+    
+    private FieldValidator(Long fieldId, String label, boolean required, List<Rule> rules) {
+        this.fieldId = fieldId;
+        this.label = label;
+        this.required = required;
+        this.rules = Collections.unmodifiableList(rules);
+    }
+    
+    public static FieldValidator compile(FormField field, ObjectMapper objectMapper) {
+        List<Rule> rules = new ArrayList<>();
+        
+        switch (field.getFieldType()) {
+            case EMAIL -> rules.add(value -> EMAIL_PATTERN.matcher(value).matches() ? null : "must be a valid email address");
+            case NUMBER -> rules.add(value -> NumberUtils.parseDecimal(value) != null ? null : "must be a number");
+            case DATE -> rules.add(value -> DateUtils.parseDate(value) != null ? null : "must be a date in yyyy-MM-dd format");
+            case RADIO, DROPDOWN, CHECKBOX -> {
+                Set<String> allowed = declaredOptions(field.getOptions(), objectMapper);
+                if (!allowed.isEmpty()) {
+                    rules.add(value -> allowed.contains(value) ? null : "must be one of the listed options");
+                }
+            }
+            // Files arrive as multipart parts and are stored before validation; an inline
+            // string in a JSON submission is rejected
+            case FILE -> rules.add(value -> FileReference.parse(value, objectMapper) != null ? null : "must be an uploaded file");
+            default -> {
+                // Free text only has the rules below
+            }
+        }
+        
+        if (field.getValidationRules() != null && !field.getValidationRules().isBlank()) {
+            compileRules(field, objectMapper, rules);
+        }
+        
+        return new FieldValidator(field.getId(), field.getLabel(), Boolean.TRUE.equals(field.getIsRequired()), rules);
+    }
+    
+    // Returns the first error for the submitted value, or null if it is valid
+    public String validate(Object rawValue) {
+        List<String> values = values(rawValue);
+        if (values.isEmpty()) {
+            return required ? "is required" : null;
+        }
+        
+        for (String value : values) {
+            for (Rule rule : rules) {
+                String error = rule.check(value);
+                if (error != null) {
+                    return error;
+                }
+            }
+        }
+        return null;
+    }
+    
+    public Long getFieldId() {
+        return fieldId;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    private static void compileRules(FormField field, ObjectMapper objectMapper, List<Rule> rules) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(field.getValidationRules());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid validation rules for field '" + field.getLabel() + "': not valid JSON");
+        }
+        if (!node.isObject()) {
+            throw new RuntimeException("Invalid validation rules for field '" + field.getLabel() + "': expected a JSON object");
+        }
+        
+        if (node.hasNonNull("pattern")) {
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(node.get("pattern").asText());
+            } catch (PatternSyntaxException e) {
+                throw new RuntimeException("Invalid validation rules for field '" + field.getLabel() + "': bad pattern");
+            }
+            if (hasNestedQuantifier(pattern.pattern())) {
+                throw new RuntimeException("Invalid validation rules for field '" + field.getLabel()
+                        + "': pattern repeats a group that itself contains a repetition");
+            }
+            String message = node.hasNonNull("message") ? node.get("message").asText() : "has an invalid format";
+            rules.add(value -> {
+                if (value.length() > MAX_PATTERN_INPUT_LENGTH) {
+                    return "must be at most " + MAX_PATTERN_INPUT_LENGTH + " characters";
+                }
+                return pattern.matcher(value).matches() ? null : message;
+            });
+        }
+        if (node.hasNonNull("minLength")) {
+            int minLength = node.get("minLength").asInt();
+            rules.add(value -> value.length() >= minLength ? null : "must be at least " + minLength + " characters");
+        }
+        if (node.hasNonNull("maxLength")) {
+            int maxLength = node.get("maxLength").asInt();
+            rules.add(value -> value.length() <= maxLength ? null : "must be at most " + maxLength + " characters");
+        }
+        if (node.hasNonNull("min")) {
+            double min = node.get("min").asDouble();
+            rules.add(value -> {
+                Double number = NumberUtils.parseDecimal(value);
+                return number != null && number >= min ? null : "must be at least " + node.get("min").asText();
+            });
+        }
+        if (node.hasNonNull("max")) {
+            double max = node.get("max").asDouble();
+            rules.add(value -> {
+                Double number = NumberUtils.parseDecimal(value);
+                return number != null && number <= max ? null : "must be at most " + node.get("max").asText();
+            });
+        }
+    }
+    
+    // True for a quantified group whose body contains a quantifier, such as (a+)+ or (\w*,?)*,
+    // the shape behind catastrophic backtracking. Expects a pattern that already compiled.
+    static boolean hasNestedQuantifier(String regex) {
+        // One entry per open group: whether a quantifier has been seen inside it
+        Deque<Boolean> groups = new ArrayDeque<>();
+        boolean innerQuantified = false;
+        boolean lastWasGroup = false;
+        int classDepth = 0;
+        
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            boolean groupClosed = false;
+            
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else {
+                    i++;
+                }
+            } else if (classDepth > 0) {
+                if (c == '[') {
+                    classDepth++;
+                } else if (c == ']') {
+                    classDepth--;
+                }
+            } else if (c == '[') {
+                classDepth = 1;
+                // A ] right after [ or [^ is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == '(') {
+                groups.push(false);
+                // Skip the ? that starts (?:, (?= and the like
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '?') {
+                    i++;
+                }
+            } else if (c == ')' && !groups.isEmpty()) {
+                innerQuantified = groups.pop();
+                groupClosed = true;
+            } else if (c == '*' || c == '+' || c == '?' || c == '{') {
+                // repeats: may match more than once; varies: the number of matches is open,
+                // which is what makes the engine try every split. An exact {3} only repeats.
+                boolean repeats = c != '?';
+                boolean varies = true;
+                if (c == '{') {
+                    int end = regex.indexOf('}', i);
+                    String[] bounds = regex.substring(i + 1, end).split(",", -1);
+                    int min = Integer.parseInt(bounds[0]);
+                    int max = bounds.length == 1 ? min : bounds[1].isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(bounds[1]);
+                    repeats = max > 1;
+                    varies = max > min;
+                    i = end;
+                }
+                // A trailing ? or + only makes the quantifier lazy or possessive
+                if (i + 1 < regex.length() && (regex.charAt(i + 1) == '?' || regex.charAt(i + 1) == '+')) {
+                    i++;
+                }
+                if (repeats && lastWasGroup && innerQuantified) {
+                    return true;
+                }
+                if (varies && !groups.isEmpty()) {
+                    groups.pop();
+                    groups.push(true);
+                }
+            }
+            
+            if (groupClosed && innerQuantified && !groups.isEmpty()) {
+                // A group holding a quantifier makes every enclosing group hold one too
+                groups.pop();
+                groups.push(true);
+            }
+            lastWasGroup = groupClosed;
+        }
+        return false;
+    }
+    
+    // Options are entered one per line in the form builder; a JSON array is accepted as well
+    private static Set<String> declaredOptions(String options, ObjectMapper objectMapper) {
+        Set<String> declared = new LinkedHashSet<>();
+        if (options == null || options.isBlank()) {
+            return declared;
+        }
+        
+        String trimmed = options.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                for (JsonNode option : objectMapper.readTree(trimmed)) {
+                    declared.add(option.asText().trim());
+                }
+                return declared;
+            } catch (JsonProcessingException e) {
+                // Not JSON after all, fall back to one option per line
+            }
+        }
+        
+        for (String option : options.split("\n")) {
+            if (!option.isBlank()) {
+                declared.add(option.trim());
+            }
+        }
+        return declared;
+    }
+    
+    private static List<String> values(Object rawValue) {
+        List<String> values = new ArrayList<>();
+        if (rawValue instanceof Collection<?> items) {
+            for (Object item : items) {
+                if (item != null && !item.toString().isBlank()) {
+                    values.add(item.toString().trim());
+                }
+            }
+        } else if (rawValue != null && !rawValue.toString().isBlank()) {
+            values.add(rawValue.toString().trim());
+        }
+        return values;
+    }
+    
+    private interface Rule {
+        String check(String value);
+    }
+}
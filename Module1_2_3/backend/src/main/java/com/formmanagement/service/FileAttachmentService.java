@@ -0,0 +1,128 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.dto.FileReference;
+import com.formmanagement.model.*;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.ResponseEntryRepository;
+import com.formmanagement.repository.ResponseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Multipart submissions: each file part is named after a FILE field id and is streamed into
+// the blob store before the response is saved, so no transaction or connection is held
+// while an upload is being received. The answer itself is the serialized FileReference;
+// ResponseService only accepts references handed over by storeUploads, never client values.
+@Service
+public class FileAttachmentService {
+    
+    public static final String DATA_PART = "data";
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private BlobStoreService blobStoreService;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private ResponseRepository responseRepository;
+    
+    @Autowired
+    private ResponseEntryRepository responseEntryRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Returns field id -> FileReference objects to merge into the submitted answers. A blob whose
+    // submission later fails validation stays in the store, where an identical upload reuses it.
+    public Map<String, Object> storeUploads(Long formId, MultiValueMap<String, MultipartFile> files, User user) {
+        Form form = responseService.getSubmittableForm(formId, user);
+        Map<Long, FormField> fieldsById = formFieldRepository.findByForm(form).stream()
+                .collect(Collectors.toMap(FormField::getId, Function.identity()));
+        
+        Map<String, Object> references = new LinkedHashMap<>();
+        for (Map.Entry<String, List<MultipartFile>> part : files.entrySet()) {
+            if (DATA_PART.equals(part.getKey())) {
+                continue;
+            }
+            
+            FormField field = fieldsById.get(parseFieldId(part.getKey()));
+            if (field == null || field.getFieldType() != FormField.FieldType.FILE) {
+                throw new RuntimeException("Field does not accept files: " + part.getKey());
+            }
+            if (part.getValue().size() > 1) {
+                throw new RuntimeException("Only one file can be uploaded for field: " + part.getKey());
+            }
+            
+            MultipartFile file = part.getValue().get(0);
+            if (file.isEmpty()) {
+                // Treated as unanswered, so a required field still fails validation
+                continue;
+            }
+            references.put(field.getId().toString(), store(file));
+        }
+        return references;
+    }
+    
+    @Transactional(readOnly = true)
+    public FileReference getAttachment(Long responseId, Long fieldId, User creator) {
+        Response response = responseRepository.findById(responseId)
+                .orElseThrow(() -> new RuntimeException("Response not found"));
+        responseService.getOwnedForm(response.getForm().getId(), creator);
+        
+        FormField field = formFieldRepository.findById(fieldId)
+                .filter(f -> f.getForm().getId().equals(response.getForm().getId()))
+                .orElseThrow(() -> new RuntimeException("Field not found"));
+        
+        return responseEntryRepository.findByResponseAndFormField(response, field).stream()
+                .map(entry -> FileReference.parse(entry.getFieldValue(), objectMapper))
+                .filter(reference -> reference != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("File not found"));
+    }
+    
+    private FileReference store(MultipartFile file) {
+        String filename = StringUtils.getFilename(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return blobStoreService.store(in, filename, contentType(file));
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot store upload: " + e.getMessage());
+        }
+    }
+    
+    // The declared type is only kept when it is a well-formed media type; downloads are
+    // served with nosniff, so it is never used to guess at the content
+    private String contentType(MultipartFile file) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(file.getContentType());
+            return mediaType.isConcrete() ? mediaType.toString() : null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+    
+    private Long parseFieldId(String partName) {
+        try {
+            return Long.parseLong(partName);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Unexpected multipart part: " + partName);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FieldAnalyticsDto;
+import com.formmanagement.dto.FormAnalyticsDto;
+import com.formmanagement.model.*;
+import com.formmanagement.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// Running per-form aggregates. A submission's deltas are merged into an in-memory buffer once
+// its transaction commits, and the buffer is written every flush interval in one transaction
+// with one upsert per touched row, so submissions never wait on the hot per-form rows. Deltas
+// still buffered when the process dies are lost until the next backfill. While a backfill
+// job for a form is being set up, its fence holds the deltas of new submissions back, see
+// openFence.
+// Reads touch one row per option, numeric field and hour, so the analytics endpoint costs
+// O(fields) regardless of how many responses a form has.
+@Service
+@Transactional
+public class FormAnalyticsService {
+    
+    private static final String UPSERT_OPTION_SQL =
+            "INSERT INTO form_analytics_options (form_field_id, option_value, response_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE response_count = response_count + VALUES(response_count)";
+    
+    private static final String UPSERT_NUMERIC_SQL =
+            "INSERT INTO form_analytics_numeric (form_field_id, value_count, value_sum, min_value, max_value) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE value_count = value_count + VALUES(value_count), value_sum = value_sum + VALUES(value_sum), " +
+            "min_value = LEAST(min_value, VALUES(min_value)), max_value = GREATEST(max_value, VALUES(max_value))";
+    
+    private static final String UPSERT_HOURLY_SQL =
+            "INSERT INTO form_analytics_hourly (form_id, bucket_start, submission_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE submission_count = submission_count + VALUES(submission_count)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private FormRepository formRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private FieldOptionCountRepository fieldOptionCountRepository;
+    
+    @Autowired
+    private FieldNumericSummaryRepository fieldNumericSummaryRepository;
+    
+    @Autowired
+    private SubmissionBucketRepository submissionBucketRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // Committed deltas not yet written, per form id
+    private final ConcurrentHashMap<Long, AnalyticsAccumulator> pending = new ConcurrentHashMap<>();
+    
+    // Held while a flush writes, so a reset never races a flush of older deltas
+    private final Object flushLock = new Object();
+    
+    // Forms with a backfill in progress
+    private final ConcurrentHashMap<Long, BackfillFence> fences = new ConcurrentHashMap<>();
+    
+    // Striped by form id. Submissions that miss a fence hold the read side until their deltas
+    // are buffered; opening a fence takes the write side to wait for them.
+    private final ReadWriteLock[] fenceLocks = newFenceLocks(64);
+    
+    // Called inside the submission transaction once the response has its id. The deltas are
+    // buffered when the transaction commits and dropped if it rolls back.
+    public void recordSubmission(Form form, Response response, Map<FormField, String> values) {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        accumulator.addSubmission(response.getSubmittedAt());
+        values.forEach(accumulator::addValue);
+        
+        Long formId = form.getId();
+        Lock lock = fenceLock(formId).readLock();
+        lock.lock();
+        BackfillFence fence = fences.get(formId);
+        if (fence != null) {
+            lock.unlock();
+            // Registered before commit, so the backfill skips the response whenever it can see it
+            fence.responseIds.add(response.getId());
+            afterCommit(() -> {
+                if (!fence.hold(accumulator)) {
+                    pending.merge(formId, accumulator, AnalyticsAccumulator::merge);
+                }
+            }, null);
+        } else {
+            afterCommit(() -> pending.merge(formId, accumulator, AnalyticsAccumulator::merge), lock);
+        }
+    }
+    
+    // Holds back the deltas of responses that commit from now on until closeFence, and registers
+    // their ids so the backfill leaves them out of the responses it counts. Returns once every
+    // submission that missed the fence has committed and buffered its deltas, so those are
+    // visible to the backfill and can be reset. An open fence is reused.
+    public Set<Long> openFence(Long formId) {
+        BackfillFence fence = fences.computeIfAbsent(formId, id -> new BackfillFence());
+        Lock lock = fenceLock(formId).writeLock();
+        lock.lock();
+        lock.unlock();
+        return fence.responseIds;
+    }
+    
+    public boolean hasFence(Long formId) {
+        return fences.containsKey(formId);
+    }
+    
+    // Buffers the held deltas and returns the form to the normal incremental path
+    public void closeFence(Long formId) {
+        BackfillFence fence = fences.remove(formId);
+        if (fence != null) {
+            AnalyticsAccumulator held = fence.close();
+            if (!held.isEmpty()) {
+                pending.merge(formId, held, AnalyticsAccumulator::merge);
+            }
+        }
+    }
+    
+    // Writes all buffered deltas in one transaction, forms in id order so concurrent
+    // writers lock the rows in the same order. Failed deltas go back into the buffer.
+    @Scheduled(fixedDelayString = "${analytics.flush-interval-ms}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flushPending() {
+        synchronized (flushLock) {
+            Map<Long, AnalyticsAccumulator> batch = new TreeMap<>();
+            for (Long formId : new TreeSet<>(pending.keySet())) {
+                AnalyticsAccumulator accumulator = pending.remove(formId);
+                if (accumulator != null) {
+                    batch.put(formId, accumulator);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+            } catch (RuntimeException e) {
+                System.err.println("Cannot write analytics for " + batch.size() + " forms: " + e.getMessage());
+                batch.forEach((formId, accumulator) -> pending.merge(formId, accumulator, AnalyticsAccumulator::merge));
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        flushPending();
+    }
+    
+    // Adds the accumulated deltas to the stored aggregates. Rows are upserted in key order
+    // so concurrent submissions to the same form lock them in the same order.
+    public void apply(Long formId, AnalyticsAccumulator accumulator) {
+        if (accumulator.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> options = new ArrayList<>();
+        new TreeMap<>(accumulator.getOptionCounts()).forEach((fieldId, counts) ->
+                new TreeMap<>(counts).forEach((option, count) -> options.add(new Object[]{fieldId, option, count})));
+        if (!options.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_OPTION_SQL, options);
+        }
+        
+        List<Object[]> numeric = new ArrayList<>();
+        new TreeMap<>(accumulator.getNumericStats()).forEach((fieldId, stats) ->
+                numeric.add(new Object[]{fieldId, stats.getCount(), stats.getSum(), stats.getMin(), stats.getMax()}));
+        if (!numeric.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_NUMERIC_SQL, numeric);
+        }
+        
+        List<Object[]> hourly = new ArrayList<>();
+        new TreeMap<>(accumulator.getHourlyCounts()).forEach((bucket, count) ->
+                hourly.add(new Object[]{formId, Timestamp.valueOf(bucket), count}));
+        if (!hourly.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_HOURLY_SQL, hourly);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public FormAnalyticsDto getAnalytics(Long formId, User creator) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+        
+        if (!form.getCreator().getId().equals(creator.getId())) {
+            throw new RuntimeException("You don't have permission to view analytics for this form");
+        }
+        
+        List<FormField> fields = formFieldRepository.findFieldsByFormOrdered(form);
+        List<Long> fieldIds = fields.stream().map(FormField::getId).collect(Collectors.toList());
+        
+        Map<Long, Map<String, Long>> optionCounts = new HashMap<>();
+        for (FieldOptionCount count : fieldOptionCountRepository.findByFieldIds(fieldIds)) {
+            optionCounts.computeIfAbsent(count.getId().getFormFieldId(), id -> new LinkedHashMap<>())
+                    .put(count.getId().getOptionValue(), count.getResponseCount());
+        }
+        Map<Long, FieldNumericSummary> numericSummaries = fieldNumericSummaryRepository.findAllById(fieldIds).stream()
+                .collect(Collectors.toMap(FieldNumericSummary::getFormFieldId, summary -> summary));
+        
+        List<FieldAnalyticsDto> fieldDtos = new ArrayList<>(fields.size());
+        for (FormField field : fields) {
+            FieldAnalyticsDto dto = new FieldAnalyticsDto(field);
+            switch (field.getFieldType()) {
+                case RADIO, CHECKBOX, DROPDOWN -> dto.setOptionCounts(optionCounts.getOrDefault(field.getId(), new LinkedHashMap<>()));
+                case NUMBER -> {
+                    FieldNumericSummary summary = numericSummaries.get(field.getId());
+                    dto.setValueCount(summary != null ? summary.getValueCount() : 0L);
+                    if (summary != null && summary.getValueCount() > 0) {
+                        dto.setMin(summary.getMinValue());
+                        dto.setMax(summary.getMaxValue());
+                        dto.setMean(summary.getValueSum() / summary.getValueCount());
+                    }
+                }
+                default -> {
+                    // No aggregates are kept for free-text fields
+                }
+            }
+            fieldDtos.add(dto);
+        }
+        
+        Map<LocalDateTime, Long> hourly = new LinkedHashMap<>();
+        long total = 0;
+        for (SubmissionBucket bucket : submissionBucketRepository.findByFormId(formId)) {
+            hourly.put(bucket.getId().getBucketStart(), bucket.getSubmissionCount());
+            total += bucket.getSubmissionCount();
+        }
+        
+        FormAnalyticsDto dto = new FormAnalyticsDto(formId);
+        dto.setTotalSubmissions(total);
+        dto.setHourlySubmissions(hourly);
+        dto.setFields(fieldDtos);
+        return dto;
+    }
+    
+    public void resetForForm(Long formId) {
+        synchronized (flushLock) {
+            pending.remove(formId);
+        }
+        jdbcTemplate.update("DELETE FROM form_analytics_options WHERE form_field_id IN (SELECT id FROM form_fields WHERE form_id = ?)", formId);
+        jdbcTemplate.update("DELETE FROM form_analytics_numeric WHERE form_field_id IN (SELECT id FROM form_fields WHERE form_id = ?)", formId);
+        jdbcTemplate.update("DELETE FROM form_analytics_hourly WHERE form_id = ?", formId);
+    }
+    
+    public void deleteForForm(Long formId) {
+        fences.remove(formId);
+        resetForForm(formId);
+        jdbcTemplate.update("DELETE FROM analytics_backfill_jobs WHERE form_id = ?", formId);
+    }
+    
+    private static ReadWriteLock[] newFenceLocks(int stripes) {
+        ReadWriteLock[] locks = new ReadWriteLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        return locks;
+    }
+    
+    private ReadWriteLock fenceLock(Long formId) {
+        return fenceLocks[Math.floorMod(formId.hashCode(), fenceLocks.length)];
+    }
+    
+    // Runs the action once the current transaction commits and releases the lock, if any,
+    // when it completes either way
+    private void afterCommit(Runnable action, Lock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                action.run();
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+    
+    private static class BackfillFence {
+        
+        private final Set<Long> responseIds = ConcurrentHashMap.newKeySet();
+        private final AnalyticsAccumulator held = new AnalyticsAccumulator();
+        private boolean closed;
+        
+        private synchronized boolean hold(AnalyticsAccumulator accumulator) {
+            if (closed) {
+                return false;
+            }
+            held.merge(accumulator);
+            return true;
+        }
+        
+        private synchronized AnalyticsAccumulator close() {
+            closed = true;
+            return held;
+        }
+    }
+}
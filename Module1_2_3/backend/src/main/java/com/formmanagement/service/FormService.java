@@ -1,5 +1,6 @@
 package com.formmanagement.service;
 
+import com.formmanagement.config.CacheConfig;
 import com.formmanagement.dto.FormDto;
 import com.formmanagement.dto.FormFieldDto;
 import com.formmanagement.model.Form;
@@ -7,16 +8,32 @@ import com.formmanagement.model.FormField;
 import com.formmanagement.model.User;
 import com.formmanagement.repository.FormRepository;
 import com.formmanagement.repository.FormFieldRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "service.calls", histogram = true)
 public class FormService {
     
     @Autowired
@@ -25,6 +42,39 @@ public class FormService {
     @Autowired
     private FormFieldRepository formFieldRepository;
     
+    @Autowired
+    private SubmissionCounterService submissionCounterService;
+    
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+    
+    @Autowired
+    private FormValidationService formValidationService;
+    
+    @Autowired
+    private FullTextIndexService fullTextIndexService;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer dtoConversion;
+    
+    private Timer batchDtoConversion;
+    
+    // The conversions are private, so the class-level @Timed cannot see them
+    @PostConstruct
+    public void initMetrics() {
+        dtoConversion = Timer.builder("form.dto.conversion").tag("mode", "single")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchDtoConversion = Timer.builder("form.dto.conversion").tag("mode", "batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
     public Form createForm(FormDto formDto, User creator) {
         Form form = new Form();
         form.setTitle(formDto.getTitle());
@@ -39,8 +89,9 @@ public class FormService {
         
         Form savedForm = formRepository.save(form);
         
-        // Save form fields
+        // Save form fields; ids are pre-allocated, so all fields go out in one insert batch
         if (formDto.getFields() != null) {
+            List<FormField> fields = new ArrayList<>(formDto.getFields().size());
             for (FormFieldDto fieldDto : formDto.getFields()) {
                 FormField field = new FormField();
                 field.setForm(savedForm);
@@ -52,9 +103,11 @@ public class FormService {
                 field.setHelpText(fieldDto.getHelpText());
                 field.setOptions(fieldDto.getOptions());
                 field.setValidationRules(fieldDto.getValidationRules());
+                formValidationService.checkField(field);
                 
-                formFieldRepository.save(field);
+                fields.add(field);
             }
+            formFieldRepository.saveAll(fields);
         }
         
         return savedForm;
@@ -77,6 +130,11 @@ public class FormService {
         form.setRequireLogin(formDto.getRequireLogin());
         form.setExpiresAt(formDto.getExpiresAt());
         
+        // The duplicate rule may have changed; the count and in-flight reservations are kept
+        submissionCounterService.refresh(formId);
+        formValidationService.evict(formId);
+        evictPublicFormAfterCommit(formId);
+        
         return formRepository.save(form);
     }
     
@@ -88,21 +146,36 @@ public class FormService {
             throw new RuntimeException("You don't have permission to delete this form");
         }
         
+        formAnalyticsService.deleteForForm(formId);
         formRepository.delete(form);
+        submissionCounterService.evict(formId);
+        formValidationService.evict(formId);
+        evictPublicFormAfterCommit(formId);
+        fullTextIndexService.deleteFormAfterCommit(formId);
     }
     
+    @Transactional(readOnly = true)
     public List<FormDto> getFormsByCreator(User creator) {
         List<Form> forms = formRepository.findActiveFormsByCreator(creator);
-        return forms.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(forms);
     }
     
+    @Transactional(readOnly = true)
+    public Page<FormDto> getFormsByCreator(User creator, Pageable pageable) {
+        Page<Form> forms = formRepository.findActiveFormsByCreator(creator, pageable);
+        return new PageImpl<>(convertToDtos(forms.getContent()), pageable, forms.getTotalElements());
+    }
+    
+    @Transactional(readOnly = true)
     public List<FormDto> getPublicForms() {
         List<Form> forms = formRepository.findPublicActiveForms();
-        return forms.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(forms);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<FormDto> getPublicForms(Pageable pageable) {
+        Page<Form> forms = formRepository.findPublicActiveForms(pageable);
+        return new PageImpl<>(convertToDtos(forms.getContent()), pageable, forms.getTotalElements());
     }
     
     public Optional<FormDto> getFormById(Long formId) {
@@ -110,22 +183,79 @@ public class FormService {
                 .map(this::convertToDto);
     }
     
+    // Published definitions are served from an in-process snapshot cache. Every caller gets
+    // its own copy of the snapshot; entries are evicted once updateForm/deleteForm commit and
+    // otherwise expire per cache.public-forms.spec
+    @Transactional(readOnly = true)
     public Optional<FormDto> getPublicFormById(Long formId) {
-        return formRepository.findByIdAndIsActive(formId, true)
-                .filter(form -> form.getIsPublic())
-                .map(this::convertToDto);
+        FormDto snapshot = (FormDto) publicFormsCache().getIfPresent(formId);
+        if (snapshot == null) {
+            snapshot = formRepository.findByIdAndIsActive(formId, true)
+                    .filter(form -> form.getIsPublic())
+                    .map(this::convertToDto)
+                    .orElse(null);
+            if (snapshot == null) {
+                return Optional.empty();
+            }
+            publicFormsCache().put(formId, snapshot);
+        }
+        return Optional.of(new FormDto(snapshot));
+    }
+    
+    // Evicting before the commit would let a concurrent read cache the old definition again
+    private void evictPublicFormAfterCommit(Long formId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicFormsCache().invalidate(formId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicFormsCache().invalidate(formId);
+            }
+        });
+    }
+    
+    private Cache<Object, Object> publicFormsCache() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.PUBLIC_FORMS_CACHE)).getNativeCache();
     }
     
     private FormDto convertToDto(Form form) {
-        FormDto dto = new FormDto(form);
+        return dtoConversion.record(() -> {
+            FormDto dto = new FormDto(form);
+            
+            // Get form fields
+            List<FormField> fields = formFieldRepository.findFieldsByFormOrdered(form);
+            List<FormFieldDto> fieldDtos = fields.stream()
+                    .map(FormFieldDto::new)
+                    .collect(Collectors.toList());
+            dto.setFields(fieldDtos);
+            
+            return dto;
+        });
+    }
+    
+    // Loads the fields of all given forms with a single IN query and groups them in memory
+    private List<FormDto> convertToDtos(List<Form> forms) {
+        if (forms.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Get form fields
-        List<FormField> fields = formFieldRepository.findFieldsByFormOrdered(form);
-        List<FormFieldDto> fieldDtos = fields.stream()
-                .map(FormFieldDto::new)
-                .collect(Collectors.toList());
-        dto.setFields(fieldDtos);
+        return batchDtoConversion.record(() -> batchConvert(forms));
+    }
+    
+    private List<FormDto> batchConvert(List<Form> forms) {
+        Map<Long, FormDto> dtosById = new LinkedHashMap<>();
+        for (Form form : forms) {
+            FormDto dto = new FormDto(form);
+            dto.setFields(new ArrayList<>());
+            dtosById.put(form.getId(), dto);
+        }
+        
+        for (FormField field : formFieldRepository.findFieldsByFormIdsOrdered(dtosById.keySet())) {
+            dtosById.get(field.getForm().getId()).getFields().add(new FormFieldDto(field));
+        }
         
-        return dto;
+        return new ArrayList<>(dtosById.values());
     }
 }
@@ -0,0 +1,79 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.config.CacheConfig;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class FormValidationService {
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Validates a submission against the form's compiled validator chains. Chains are cached
+    // per form and version (its updatedAt), so rules are parsed and patterns compiled once.
+    public void validate(Form form, Collection<FormField> fields, Map<String, Object> responseData) {
+        List<FieldValidator> validators = getValidators(form, fields);
+        
+        List<String> errors = new ArrayList<>();
+        for (FieldValidator validator : validators) {
+            String error = validator.validate(responseData.get(validator.getFieldId().toString()));
+            if (error != null) {
+                errors.add(validator.getLabel() + " " + error);
+            }
+        }
+        
+        if (!errors.isEmpty()) {
+            throw new RuntimeException("Validation failed: " + String.join("; ", errors));
+        }
+    }
+    
+    // Compiles the field's rules so a form with unusable rules is rejected when it is saved
+    public void checkField(FormField field) {
+        FieldValidator.compile(field, objectMapper);
+    }
+    
+    public void evict(Long formId) {
+        nativeCache().asMap().keySet()
+                .removeIf(key -> ((ValidatorKey) key).formId().equals(formId));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<FieldValidator> getValidators(Form form, Collection<FormField> fields) {
+        long version = form.getUpdatedAt() != null ? form.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return (List<FieldValidator>) nativeCache().get(new ValidatorKey(form.getId(), version), key -> compile(fields));
+    }
+    
+    private List<FieldValidator> compile(Collection<FormField> fields) {
+        List<FormField> ordered = new ArrayList<>(fields);
+        ordered.sort(Comparator.comparing(FormField::getFieldOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+        
+        List<FieldValidator> validators = new ArrayList<>(ordered.size());
+        for (FormField field : ordered) {
+            validators.add(FieldValidator.compile(field, objectMapper));
+        }
+        return List.copyOf(validators);
+    }
+    
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.FORM_VALIDATORS_CACHE)).getNativeCache();
+    }
+    
+    private record ValidatorKey(Long formId, long version) {}
+}
@@ -0,0 +1,355 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FullTextMatchDto;
+import com.formmanagement.model.FormField;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Lucene index over TEXT and TEXTAREA answers, one document per response and field, kept on
+// local disk. Writes happen on a single indexer thread after the submitting transaction
+// commits; the searcher is refreshed every second and the index committed every few seconds.
+// When the indexer queue is full an update is not dropped silently: its form is marked dirty
+// and rebuilt from the database once the queue has drained. Anything lost on a crash is
+// recovered by rebuilding the form through the API.
+@Service
+public class FullTextIndexService {
+    
+    private static final String KEY = "key";
+    private static final String FORM_ID = "form_id";
+    private static final String RESPONSE_ID = "response_id";
+    private static final String FIELD_ID = "field_id";
+    private static final String TEXT = "text";
+    
+    private static final int MAX_RESULTS = 100;
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    
+    private static final String INDEXED_FIELDS_SQL =
+            "SELECT id FROM form_fields WHERE form_id = :formId AND field_type IN ('TEXT', 'TEXTAREA')";
+    
+    private static final String REBUILD_ENTRIES_SQL =
+            "SELECT e.id, e.response_id, e.form_field_id, e.field_value FROM response_entries e " +
+            "WHERE e.form_field_id IN (:fieldIds) AND e.id > :afterId ORDER BY e.id LIMIT :pageSize";
+    
+    @Value("${fulltext.enabled}")
+    private boolean enabled;
+    
+    @Value("${fulltext.index-dir}")
+    private String indexDir;
+    
+    @Value("${fulltext.queue-capacity}")
+    private int queueCapacity;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    
+    private FSDirectory directory;
+    
+    private IndexWriter writer;
+    
+    private SearcherManager searcherManager;
+    
+    private ThreadPoolExecutor indexer;
+    
+    private ScheduledExecutorService maintenance;
+    
+    // Forms that missed an update because the queue was full
+    private final Set<Long> dirtyForms = ConcurrentHashMap.newKeySet();
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        
+        Path path = Paths.get(indexDir);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        
+        // A full queue rejects the task rather than blocking submissions; callers mark the form dirty
+        indexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("fulltext-indexer-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        maintenance = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("fulltext-refresh-"));
+        maintenance.scheduleWithFixedDelay(this::refresh, 1, 1, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(this::commit, 5, 5, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(this::rebuildDirtyForms, 10, 10, TimeUnit.SECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        
+        maintenance.shutdownNow();
+        indexer.shutdown();
+        indexer.awaitTermination(30, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Queues the free-text answers of a response for indexing once the current transaction commits
+    public void indexAfterCommit(Long formId, Long responseId, Map<FormField, String> values) {
+        if (!enabled) {
+            return;
+        }
+        
+        List<Document> documents = new ArrayList<>();
+        values.forEach((field, value) -> {
+            if (isIndexed(field) && value != null && !value.isBlank()) {
+                documents.add(document(formId, responseId, field.getId(), value));
+            }
+        });
+        if (documents.isEmpty()) {
+            return;
+        }
+        
+        afterCommit(() -> submitOrMarkDirty(formId, () -> {
+            try {
+                for (Document document : documents) {
+                    writer.updateDocument(new Term(KEY, document.get(KEY)), document);
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot index response " + responseId + ": " + e.getMessage());
+                dirtyForms.add(formId);
+            }
+        }));
+    }
+    
+    public void deleteFormAfterCommit(Long formId) {
+        if (!enabled) {
+            return;
+        }
+        
+        afterCommit(() -> submitOrMarkDirty(formId, () -> {
+            try {
+                writer.deleteDocuments(new Term(FORM_ID, formId.toString()));
+            } catch (IOException e) {
+                System.err.println("Cannot delete index entries for form " + formId + ": " + e.getMessage());
+                dirtyForms.add(formId);
+            }
+        }));
+    }
+    
+    // Replaces the form's documents with its current free-text answers. Runs on the indexer
+    // thread, so incremental updates queued meanwhile are applied after the rebuild. Throws
+    // when the queue is full, so the caller can report that nothing was started.
+    public void rebuildForm(Long formId, List<FormField> fields) {
+        checkEnabled();
+        
+        List<Long> fieldIds = fields.stream().filter(this::isIndexed).map(FormField::getId).toList();
+        boolean wasDirty = dirtyForms.remove(formId);
+        try {
+            indexer.execute(() -> rebuild(formId, fieldIds));
+        } catch (RejectedExecutionException e) {
+            if (wasDirty) {
+                dirtyForms.add(formId);
+            }
+            throw new RuntimeException("Full-text indexer is busy, try the rebuild again later");
+        }
+    }
+    
+    private void rebuild(Long formId, List<Long> fieldIds) {
+        try {
+            writer.deleteDocuments(new Term(FORM_ID, formId.toString()));
+            long afterId = 0;
+            while (!fieldIds.isEmpty()) {
+                MapSqlParameterSource params = new MapSqlParameterSource()
+                        .addValue("fieldIds", fieldIds)
+                        .addValue("afterId", afterId)
+                        .addValue("pageSize", REBUILD_PAGE_SIZE);
+                List<Document> page = new ArrayList<>(REBUILD_PAGE_SIZE);
+                long[] lastId = {afterId};
+                jdbcTemplate.query(REBUILD_ENTRIES_SQL, params, (RowCallbackHandler) rs -> {
+                    lastId[0] = rs.getLong(1);
+                    String value = rs.getString(4);
+                    if (value != null && !value.isBlank()) {
+                        page.add(document(formId, rs.getLong(2), rs.getLong(3), value));
+                    }
+                });
+                for (Document document : page) {
+                    writer.updateDocument(new Term(KEY, document.get(KEY)), document);
+                }
+                if (lastId[0] == afterId) {
+                    break;
+                }
+                afterId = lastId[0];
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cannot rebuild full-text index for form " + formId + ": " + e.getMessage());
+            dirtyForms.add(formId);
+        }
+    }
+    
+    boolean isDirty(Long formId) {
+        return dirtyForms.contains(formId);
+    }
+    
+    public List<FullTextMatchDto> search(Long formId, String queryText, int limit) throws IOException {
+        checkEnabled();
+        if (queryText == null || queryText.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        
+        SimpleQueryParser parser = new SimpleQueryParser(writer.getAnalyzer(), TEXT);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = parser.parse(queryText);
+        Query query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FORM_ID, formId.toString())), BooleanClause.Occur.FILTER)
+                .build();
+        
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, Math.max(1, Math.min(limit, MAX_RESULTS)));
+            List<FullTextMatchDto> matches = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = searcher.storedFields().document(scoreDoc.doc);
+                String value = document.get(TEXT);
+                matches.add(new FullTextMatchDto(
+                        document.getField(RESPONSE_ID).numericValue().longValue(),
+                        document.getField(FIELD_ID).numericValue().longValue(),
+                        scoreDoc.score,
+                        value.length() > SNIPPET_LENGTH ? value.substring(0, SNIPPET_LENGTH) : value));
+            }
+            return matches;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+    
+    private boolean isIndexed(FormField field) {
+        return field.getFieldType() == FormField.FieldType.TEXT || field.getFieldType() == FormField.FieldType.TEXTAREA;
+    }
+    
+    private Document document(Long formId, Long responseId, Long fieldId, String value) {
+        Document document = new Document();
+        document.add(new StringField(KEY, responseId + ":" + fieldId, Field.Store.YES));
+        document.add(new StringField(FORM_ID, formId.toString(), Field.Store.NO));
+        document.add(new StoredField(RESPONSE_ID, responseId));
+        document.add(new StoredField(FIELD_ID, fieldId));
+        document.add(new TextField(TEXT, value, Field.Store.YES));
+        return document;
+    }
+    
+    private void submitOrMarkDirty(Long formId, Runnable task) {
+        try {
+            indexer.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (dirtyForms.add(formId)) {
+                System.err.println("Full-text index queue is full, form " + formId + " will be rebuilt");
+            }
+        }
+    }
+    
+    // Rebuilds forms that missed updates once the queue is at most half full, so the rebuilds
+    // do not crowd out new submissions
+    private void rebuildDirtyForms() {
+        for (Long formId : new ArrayList<>(dirtyForms)) {
+            if (indexer.getQueue().size() > queueCapacity / 2 || !dirtyForms.remove(formId)) {
+                return;
+            }
+            try {
+                List<Long> fieldIds = jdbcTemplate.queryForList(INDEXED_FIELDS_SQL,
+                        new MapSqlParameterSource("formId", formId), Long.class);
+                indexer.execute(() -> rebuild(formId, fieldIds));
+            } catch (RuntimeException e) {
+                dirtyForms.add(formId);
+                return;
+            }
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            System.err.println("Cannot refresh full-text searcher: " + e.getMessage());
+        }
+    }
+    
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot commit full-text index: " + e.getMessage());
+        }
+    }
+    
+    private void checkEnabled() {
+        if (!enabled) {
+            throw new RuntimeException("Full-text search is disabled");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.formmanagement.service;
+
+public class IngestionQueueFullException extends RuntimeException {
+    
+    public IngestionQueueFullException() {
+        super("Submission queue is full, please retry later");
+    }
+}
@@ -0,0 +1,196 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.OutboxMail;
+import com.formmanagement.repository.OutboxMailRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Drains the mail outbox. Each round claims up to batch-size due mails by locking them with
+// SKIP LOCKED and pushing their next attempt past a lease, then sends them outside the
+// transaction in one JavaMailSender call, which delivers the whole batch over a single SMTP
+// connection. A mail whose dispatcher dies mid-send is picked up again when its lease ends,
+// so delivery is at least once. A run keeps claiming while batches come back full, but only
+// for max-run-ms, so a large backlog is worked off across polls.
+@Service
+public class MailOutboxDispatcher {
+    
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    @Value("${mail.outbox.enabled}")
+    private boolean enabled;
+    
+    @Value("${mail.outbox.from}")
+    private String from;
+    
+    @Value("${mail.outbox.batch-size}")
+    private int batchSize;
+    
+    @Value("${mail.outbox.max-run-ms}")
+    private long maxRunMs;
+    
+    @Value("${mail.outbox.max-attempts}")
+    private int maxAttempts;
+    
+    @Value("${mail.outbox.backoff-ms}")
+    private long backoffMs;
+    
+    @Value("${mail.outbox.max-backoff-ms}")
+    private long maxBackoffMs;
+    
+    @Value("${mail.outbox.retention-days}")
+    private int retentionDays;
+    
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private volatile boolean stopping;
+    
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+    
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxRunMs);
+        List<OutboxMail> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize && !stopping && System.nanoTime() - deadline < 0);
+    }
+    
+    @Scheduled(cron = "${mail.outbox.purge-cron}")
+    public void purgeSent() {
+        if (enabled) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxMailRepository.deleteSentBefore(OutboxMail.Status.SENT, LocalDateTime.now().minusDays(retentionDays)));
+        }
+    }
+    
+    private List<OutboxMail> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMail> due = outboxMailRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxMailRepository.lease(due.stream().map(OutboxMail::getId).toList(), now.plus(CLAIM_LEASE));
+            }
+            return due;
+        });
+    }
+    
+    private void send(List<OutboxMail> batch) {
+        Map<MimeMessage, OutboxMail> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxMail mail : batch) {
+            try {
+                MimeMessage message = toMimeMessage(mail);
+                byMessage.put(message, mail);
+                messages.add(message);
+            } catch (MessagingException e) {
+                // A malformed address will not get better with retries
+                transactionTemplate.executeWithoutResult(status -> outboxMailRepository.markFailedAttempt(mail.getId(),
+                        OutboxMail.Status.FAILED, mail.getAttempts() + 1, mail.getNextAttemptAt(), truncate(e.getMessage())));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                messages.forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing in the batch was sent
+            messages.forEach(message -> failures.put(message, e));
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = new ArrayList<>();
+        for (MimeMessage message : messages) {
+            if (!failures.containsKey(message)) {
+                sent.add(byMessage.get(message).getId());
+            }
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxMailRepository.markSent(sent, OutboxMail.Status.SENT, now);
+            }
+            failures.forEach((message, error) -> {
+                OutboxMail mail = byMessage.get(message);
+                if (mail != null) {
+                    retryLater(mail, error, now);
+                }
+            });
+        });
+    }
+    
+    private void retryLater(OutboxMail mail, Exception error, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        OutboxMail.Status status = attempts >= maxAttempts ? OutboxMail.Status.FAILED : OutboxMail.Status.PENDING;
+        outboxMailRepository.markFailedAttempt(mail.getId(), status, attempts, now.plus(backoff(attempts)),
+                                               truncate(error.getMessage()));
+    }
+    
+    // Exponential backoff from backoff-ms, capped at max-backoff-ms
+    private Duration backoff(int attempts) {
+        long delay = backoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+    
+    private MimeMessage toMimeMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody());
+        return message;
+    }
+    
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,8 @@
+package com.formmanagement.service;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    
+    public PasswordHashingBusyException() {
+        super("Too many sign-ins in progress, please retry shortly");
+    }
+}
@@ -0,0 +1,137 @@
+package com.formmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The application's PasswordEncoder. Hashes are computed on a small dedicated pool instead
+// of the request thread, so a burst of logins can use at most that many cores; when the
+// pool's queue is full, or a hash waits longer than max-wait-ms, the caller gets a
+// PasswordHashingBusyException (503) instead of piling up behind it. New hashes use the
+// configured algorithm and are stored with an {id} prefix; legacy unprefixed hashes are
+// read as BCrypt and upgraded on the next successful login.
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+    
+    @Value("${password.hashing.algorithm}")
+    private String algorithm;
+    
+    @Value("${password.hashing.bcrypt-strength}")
+    private int bcryptStrength;
+    
+    @Value("${password.hashing.threads}")
+    private int threads;
+    
+    @Value("${password.hashing.queue-capacity}")
+    private int queueCapacity;
+    
+    @Value("${password.hashing.max-wait-ms}")
+    private long maxWaitMs;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private DelegatingPasswordEncoder delegate;
+    
+    private ThreadPoolExecutor executor;
+    
+    private Counter rejected;
+    
+    @PostConstruct
+    public void start() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("password.hashing.algorithm must be bcrypt or argon2, not " + algorithm);
+        }
+        
+        delegate = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+        
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"));
+        
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashes refused because the hashing pool was saturated")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    // An upgrade costs one more hash, so it is postponed while logins are queueing;
+    // the next login with the old hash tries again
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword) && executor.getQueue().isEmpty();
+    }
+    
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+        
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A cancelled task would otherwise hold its queue slot until a thread reached it
+            future.cancel(true);
+            executor.remove((Runnable) future);
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            executor.remove((Runnable) future);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Password hashing failed: " + e.getCause().getMessage());
+        }
+    }
+}
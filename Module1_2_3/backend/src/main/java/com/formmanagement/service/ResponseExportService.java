@@ -0,0 +1,170 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.dto.ResponseEntryDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Exports responses as one row per response with a column per form field, in field order.
+// Rows are produced from the response cursor batch by batch, and XLSX output goes through
+// SXSSF, which keeps only a sliding window of rows in memory and flushes the rest to disk.
+// Values a spreadsheet would read as a formula are prefixed with a quote, in both formats,
+// since answers come from anonymous respondents.
+@Service
+public class ResponseExportService {
+    
+    private static final int XLSX_ROW_WINDOW = 100;
+    
+    // Excel rejects cell values longer than this
+    private static final int XLSX_MAX_CELL_LENGTH = 32767;
+    
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    
+    // Excel's row limit; larger exports continue on another sheet, each with the header row
+    private int maxRowsPerSheet = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Transactional(readOnly = true)
+    public void exportCsv(Long formId, User creator, OutputStream out) throws IOException {
+        Form form = responseService.getOwnedForm(formId, creator);
+        List<FormField> fields = formFieldRepository.findFieldsByFormOrdered(form);
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(writer, headers(fields));
+        responseService.forEachResponseBatch(form, batch -> {
+            for (ResponseDto response : batch) {
+                writeCsvRow(writer, row(response, fields));
+            }
+        });
+        writer.flush();
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportXlsx(Long formId, User creator, OutputStream out) throws IOException {
+        Form form = responseService.getOwnedForm(formId, creator);
+        List<FormField> fields = formFieldRepository.findFieldsByFormOrdered(form);
+        
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            List<String> headers = headers(fields);
+            Sheet[] sheet = {createSheet(workbook, headers)};
+            int[] rowIndex = {1};
+            responseService.forEachResponseBatch(form, batch -> {
+                for (ResponseDto response : batch) {
+                    if (rowIndex[0] == maxRowsPerSheet) {
+                        sheet[0] = createSheet(workbook, headers);
+                        rowIndex[0] = 1;
+                    }
+                    writeXlsxRow(sheet[0], rowIndex[0]++, row(response, fields));
+                }
+            });
+            
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+    
+    private List<String> headers(List<FormField> fields) {
+        List<String> headers = new ArrayList<>(fields.size() + 4);
+        headers.add("Response ID");
+        headers.add("Submitted At");
+        headers.add("Respondent Email");
+        headers.add("Respondent Name");
+        for (FormField field : fields) {
+            headers.add(field.getLabel());
+        }
+        return headers;
+    }
+    
+    private List<String> row(ResponseDto response, List<FormField> fields) {
+        Map<Long, String> values = new HashMap<>();
+        for (ResponseEntryDto entry : response.getEntries()) {
+            values.put(entry.getFormFieldId(), entry.getFieldValue());
+        }
+        
+        List<String> row = new ArrayList<>(fields.size() + 4);
+        row.add(String.valueOf(response.getId()));
+        row.add(response.getSubmittedAt() != null ? response.getSubmittedAt().toString() : "");
+        row.add(response.getRespondentEmail());
+        row.add(response.getRespondentName());
+        for (FormField field : fields) {
+            row.add(values.get(field.getId()));
+        }
+        return row;
+    }
+    
+    private void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+    
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        value = neutralizeFormula(value);
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    private Sheet createSheet(SXSSFWorkbook workbook, List<String> headers) {
+        int number = workbook.getNumberOfSheets() + 1;
+        Sheet sheet = workbook.createSheet(number == 1 ? "Responses" : "Responses " + number);
+        writeXlsxRow(sheet, 0, headers);
+        return sheet;
+    }
+    
+    private void writeXlsxRow(Sheet sheet, int rowIndex, List<String> values) {
+        Row row = sheet.createRow(rowIndex);
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            if (value != null) {
+                value = neutralizeFormula(value);
+                row.createCell(i).setCellValue(value.length() > XLSX_MAX_CELL_LENGTH
+                        ? value.substring(0, XLSX_MAX_CELL_LENGTH) : value);
+            }
+        }
+    }
+    
+    private String neutralizeFormula(String value) {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            return "'" + value;
+        }
+        return value;
+    }
+}
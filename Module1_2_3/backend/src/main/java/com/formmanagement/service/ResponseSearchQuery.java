@@ -0,0 +1,230 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.ResponseCursor;
+import com.formmanagement.dto.ResponseSearchFilter;
+import com.formmanagement.dto.SearchCondition;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.ResponseEntry;
+import com.formmanagement.util.DateUtils;
+import com.formmanagement.util.NumberUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Translates a search filter into SQL over responses. Every condition becomes an
+// "r.id IN (SELECT response_id FROM response_entries ...)" lookup on form_field_id plus the
+// typed column for the field, so it is answered from the (form_field_id, value) indexes;
+// AND/OR groups combine those lookups. Values are always bound as parameters.
+public class ResponseSearchQuery {
+    
+    static final int MAX_CONDITIONS = 20;
+    
+    static final int MAX_DEPTH = 3;
+    
+    private final Map<Long, FormField> fields;
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+    private int conditionCount;
+    
+    public ResponseSearchQuery(Map<Long, FormField> fields) {
+        this.fields = fields;
+    }
+    
+    // Ids of the matching responses of the form after the cursor, newest first
+    public String build(Long formId, ResponseSearchFilter filter, ResponseCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT r.id FROM responses r WHERE r.form_id = :formId");
+        params.addValue("formId", formId);
+        
+        if (filter != null) {
+            String predicate = group(filter, 1);
+            if (predicate != null) {
+                sql.append(" AND ").append(predicate);
+            }
+        }
+        
+        if (after != null) {
+            sql.append(" AND (r.submitted_at < :afterAt OR (r.submitted_at = :afterAt AND r.id < :afterId))");
+            params.addValue("afterAt", after.getSubmittedAt());
+            params.addValue("afterId", after.getId());
+        }
+        
+        sql.append(" ORDER BY r.submitted_at DESC, r.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        return sql.toString();
+    }
+    
+    public MapSqlParameterSource getParams() {
+        return params;
+    }
+    
+    private String group(ResponseSearchFilter filter, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new RuntimeException("Search filters can be nested at most " + MAX_DEPTH + " levels deep");
+        }
+        
+        String joiner;
+        if (filter.getMatch() == null || filter.getMatch().equalsIgnoreCase("ALL")) {
+            joiner = " AND ";
+        } else if (filter.getMatch().equalsIgnoreCase("ANY")) {
+            joiner = " OR ";
+        } else {
+            throw new RuntimeException("Search match must be ALL or ANY");
+        }
+        
+        List<String> predicates = new ArrayList<>();
+        if (filter.getConditions() != null) {
+            for (SearchCondition condition : filter.getConditions()) {
+                predicates.add(condition(condition));
+            }
+        }
+        if (filter.getGroups() != null) {
+            for (ResponseSearchFilter nested : filter.getGroups()) {
+                String predicate = group(nested, depth + 1);
+                if (predicate != null) {
+                    predicates.add(predicate);
+                }
+            }
+        }
+        
+        return predicates.isEmpty() ? null : "(" + String.join(joiner, predicates) + ")";
+    }
+    
+    private String condition(SearchCondition condition) {
+        if (++conditionCount > MAX_CONDITIONS) {
+            throw new RuntimeException("A search can have at most " + MAX_CONDITIONS + " conditions");
+        }
+        
+        FormField field = condition.getFieldId() != null ? fields.get(condition.getFieldId()) : null;
+        if (field == null) {
+            throw new RuntimeException("Field does not belong to this form: " + condition.getFieldId());
+        }
+        if (condition.getOperator() == null) {
+            throw new RuntimeException("Search condition for field " + field.getId() + " has no operator");
+        }
+        
+        String fieldParam = bind(field.getId());
+        String predicate = switch (condition.getOperator().toUpperCase()) {
+            case "EQUALS" -> equalsPredicate(field, required(condition.getValue(), field));
+            case "CONTAINS" -> "e.field_value LIKE " + bind("%" + escapeLike(required(condition.getValue(), field)) + "%");
+            case "RANGE" -> rangePredicate(field, condition.getMin(), condition.getMax());
+            case "IN" -> inPredicate(field, condition.getValues());
+            default -> throw new RuntimeException("Unsupported search operator: " + condition.getOperator());
+        };
+        
+        return "r.id IN (SELECT e.response_id FROM response_entries e WHERE e.form_field_id = " + fieldParam +
+               " AND " + predicate + ")";
+    }
+    
+    private String equalsPredicate(FormField field, String value) {
+        return switch (field.getFieldType()) {
+            case NUMBER -> "e.numeric_value = " + bind(parseNumber(value, field));
+            case DATE -> {
+                LocalDateTime day = parseDate(value, field);
+                yield dayPredicate(day, day.plusDays(1));
+            }
+            case TEXT, EMAIL, RADIO, DROPDOWN -> value.length() <= ResponseEntry.SHORT_VALUE_LENGTH
+                    ? "e.short_value = " + bind(value)
+                    : "e.field_value = " + bind(value);
+            default -> "e.field_value = " + bind(value);
+        };
+    }
+    
+    private String rangePredicate(FormField field, String min, String max) {
+        if (field.getFieldType() != FormField.FieldType.NUMBER && field.getFieldType() != FormField.FieldType.DATE) {
+            throw new RuntimeException("RANGE is only supported on NUMBER and DATE fields");
+        }
+        if (min == null && max == null) {
+            throw new RuntimeException("RANGE on field " + field.getId() + " needs min or max");
+        }
+        
+        if (field.getFieldType() == FormField.FieldType.DATE) {
+            return dayPredicate(min != null ? parseDate(min, field) : null,
+                                max != null ? parseDate(max, field).plusDays(1) : null);
+        }
+        Double low = min != null ? parseNumber(min, field) : null;
+        Double high = max != null ? parseNumber(max, field) : null;
+        if (low != null && high != null) {
+            return "e.numeric_value BETWEEN " + bind(low) + " AND " + bind(high);
+        }
+        return low != null ? "e.numeric_value >= " + bind(low) : "e.numeric_value <= " + bind(high);
+    }
+    
+    // Stored dates can carry a time of day, so days are matched as [from, until) on date_value
+    private String dayPredicate(LocalDateTime from, LocalDateTime until) {
+        if (from != null && until != null) {
+            return "e.date_value >= " + bind(from) + " AND e.date_value < " + bind(until);
+        }
+        return from != null ? "e.date_value >= " + bind(from) : "e.date_value < " + bind(until);
+    }
+    
+    private String inPredicate(FormField field, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            throw new RuntimeException("IN on field " + field.getId() + " needs at least one value");
+        }
+        
+        switch (field.getFieldType()) {
+            case RADIO, DROPDOWN -> {
+                // Options too long for short_value are only stored in field_value
+                List<String> shortValues = values.stream()
+                        .filter(value -> value.length() <= ResponseEntry.SHORT_VALUE_LENGTH)
+                        .toList();
+                List<String> longValues = values.stream()
+                        .filter(value -> value.length() > ResponseEntry.SHORT_VALUE_LENGTH)
+                        .toList();
+                if (longValues.isEmpty()) {
+                    return "e.short_value IN (" + bind(shortValues) + ")";
+                }
+                if (shortValues.isEmpty()) {
+                    return "e.field_value IN (" + bind(longValues) + ")";
+                }
+                return "(e.short_value IN (" + bind(shortValues) + ") OR e.field_value IN (" + bind(longValues) + "))";
+            }
+            case CHECKBOX -> {
+                // Checkbox answers are stored as "[a, b]"; match whole options between the separators
+                List<String> matches = new ArrayList<>();
+                for (String value : values) {
+                    matches.add("CONCAT(', ', SUBSTRING(e.field_value, 2, CHAR_LENGTH(e.field_value) - 2), ', ') LIKE " +
+                                bind("%, " + escapeLike(value) + ", %"));
+                }
+                return "(" + String.join(" OR ", matches) + ")";
+            }
+            default -> throw new RuntimeException("IN is only supported on RADIO, DROPDOWN and CHECKBOX fields");
+        }
+    }
+    
+    private String bind(Object value) {
+        String name = "p" + params.getParameterNames().length;
+        params.addValue(name, value);
+        return ":" + name;
+    }
+    
+    private static String required(String value, FormField field) {
+        if (value == null) {
+            throw new RuntimeException("Search condition for field " + field.getId() + " needs a value");
+        }
+        return value;
+    }
+    
+    private static Double parseNumber(String value, FormField field) {
+        Double number = NumberUtils.parseDecimal(value);
+        if (number == null) {
+            throw new RuntimeException("Search value for field " + field.getId() + " must be a number");
+        }
+        return number;
+    }
+    
+    private static LocalDateTime parseDate(String value, FormField field) {
+        LocalDate date = DateUtils.parseDate(value);
+        if (date == null) {
+            throw new RuntimeException("Search value for field " + field.getId() + " must be a date in yyyy-MM-dd format");
+        }
+        return date.atStartOfDay();
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,22 +1,51 @@
 package com.formmanagement.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.formmanagement.dto.CursorPage;
+import com.formmanagement.dto.FileReference;
+import com.formmanagement.dto.FullTextMatchDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.dto.ResponseCursor;
 import com.formmanagement.dto.ResponseDto;
 import com.formmanagement.dto.ResponseEntryDto;
+import com.formmanagement.dto.ResponseSearchRequest;
 import com.formmanagement.model.*;
 import com.formmanagement.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "service.calls", histogram = true)
 public class ResponseService {
     
+    private static final int ENTRY_BATCH_SIZE = 500;
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private ResponseRepository responseRepository;
     
@@ -32,9 +61,110 @@ public class ResponseService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private SubmissionCounterService submissionCounterService;
+    
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+    
+    @Autowired
+    private FormValidationService formValidationService;
+    
+    @Autowired
+    private FullTextIndexService fullTextIndexService;
+    
+    @Autowired
+    private ConfirmationMailService confirmationMailService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     public Response submitResponse(Long formId, Map<String, Object> responseData, String respondentEmail, 
                                  String respondentName, String ipAddress, String userAgent, User user) {
         
+        Form form = getSubmittableForm(formId, user);
+        Map<Long, FormField> fieldsById = loadFields(form);
+        encodeFileAnswers(fieldsById, responseData);
+        Map<FormField, String> values = resolveValues(fieldsById, responseData);
+        formValidationService.validate(form, fieldsById.values(), responseData);
+        
+        // Check submission limits and duplicates; the slot is given back if this transaction rolls back
+        SubmissionCounterService.Reservation reservation = submissionCounterService.reserve(form, respondentEmail);
+        submissionCounterService.releaseOnRollback(reservation);
+        
+        // Create response
+        Response response = newResponse(form, user, respondentEmail, respondentName, ipAddress, userAgent);
+        Response savedResponse = responseRepository.save(response);
+        
+        // Ids come from the pooled generator, so the response and its entries are written
+        // as JDBC batches when the transaction flushes
+        responseEntryRepository.saveAll(toEntries(savedResponse, values));
+        formAnalyticsService.recordSubmission(form, savedResponse, values);
+        fullTextIndexService.indexAfterCommit(form.getId(), savedResponse.getId(), values);
+        confirmationMailService.enqueue(form, savedResponse);
+        
+        return savedResponse;
+    }
+    
+    // Validates the form and payload without writing anything; used by the asynchronous
+    // ingestion path, which reserves the submission slot itself before queueing
+    @Transactional(readOnly = true)
+    public Form validateSubmission(Long formId, Map<String, Object> responseData, User user) {
+        Form form = getSubmittableForm(formId, user);
+        Map<Long, FormField> fieldsById = loadFields(form);
+        encodeFileAnswers(fieldsById, responseData);
+        resolveValues(fieldsById, responseData);
+        formValidationService.validate(form, fieldsById.values(), responseData);
+        return form;
+    }
+    
+    // Persists a batch of queued submissions in one transaction; responses and entries are
+    // inserted in JDBC batches of hibernate.jdbc.batch_size rows. Submissions were
+    // validated when they were accepted, so they are not validated again here.
+    public void persistSubmissions(List<PendingSubmission> submissions) {
+        Map<Long, Form> forms = new HashMap<>();
+        Map<Long, Map<Long, FormField>> fieldsByForm = new HashMap<>();
+        List<ResponseEntry> entries = new ArrayList<>();
+        
+        // A journal entry can be replayed after its batch committed but before the file was
+        // deleted; the receipt id identifies those and the unique key backs the check up
+        Set<String> persisted = responseRepository.findExistingReceiptIds(submissions.stream()
+                .map(PendingSubmission::getReceiptId)
+                .collect(Collectors.toList()));
+        
+        for (PendingSubmission submission : submissions) {
+            if (persisted.contains(submission.getReceiptId())) {
+                continue;
+            }
+            
+            Form form = forms.computeIfAbsent(submission.getFormId(), id -> formRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Form not found")));
+            Map<Long, FormField> fieldsById = fieldsByForm.computeIfAbsent(form.getId(), id -> loadFields(form));
+            Map<FormField, String> values = resolveValues(fieldsById, submission.getResponseData());
+            
+            User user = submission.getUserId() != null ? userRepository.getReferenceById(submission.getUserId()) : null;
+            Response response = newResponse(form, user, submission.getRespondentEmail(), submission.getRespondentName(),
+                                            submission.getIpAddress(), submission.getUserAgent());
+            response.setSubmittedAt(submission.getAcceptedAt());
+            response.setReceiptId(submission.getReceiptId());
+            
+            Response savedResponse = responseRepository.save(response);
+            entries.addAll(toEntries(savedResponse, values));
+            fullTextIndexService.indexAfterCommit(form.getId(), savedResponse.getId(), values);
+            confirmationMailService.enqueue(form, savedResponse);
+            formAnalyticsService.recordSubmission(form, savedResponse, values);
+        }
+        
+        responseEntryRepository.saveAll(entries);
+    }
+    
+    public Form getSubmittableForm(Long formId, User user) {
         Form form = formRepository.findByIdAndIsActive(formId, true)
                 .orElseThrow(() -> new RuntimeException("Form not found or inactive"));
         
@@ -43,23 +173,70 @@ public class ResponseService {
             throw new RuntimeException("Form requires authentication");
         }
         
-        // Check submission limits
-        if (form.getSubmissionLimit() != null) {
-            Long currentCount = responseRepository.countByForm(form);
-            if (currentCount >= form.getSubmissionLimit()) {
-                throw new RuntimeException("Form submission limit reached");
+        return form;
+    }
+    
+    // Loads all fields of the form once so submitted values can be resolved in memory
+    private Map<Long, FormField> loadFields(Form form) {
+        return formFieldRepository.findByForm(form).stream()
+                .collect(Collectors.toMap(FormField::getId, Function.identity()));
+    }
+    
+    private Map<FormField, String> resolveValues(Map<Long, FormField> fieldsById, Map<String, Object> responseData) {
+        Map<FormField, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : responseData.entrySet()) {
+            Long fieldId;
+            try {
+                fieldId = Long.parseLong(entry.getKey());
+            } catch (NumberFormatException e) {
+                // Skip invalid field IDs
+                continue;
             }
+            
+            FormField field = fieldsById.get(fieldId);
+            if (field == null) {
+                throw new RuntimeException("Field does not belong to this form: " + fieldId);
+            }
+            
+            values.put(field, entry.getValue() != null ? entry.getValue().toString() : "");
         }
-        
-        // Check for duplicate submissions
-        if (!form.getAllowDuplicate() && respondentEmail != null) {
-            Long duplicateCount = responseRepository.countByFormAndEmail(form, respondentEmail);
-            if (duplicateCount > 0) {
-                throw new RuntimeException("Duplicate submission not allowed");
+        return values;
+    }
+    
+    // A FILE answer must be the FileReference that FileAttachmentService.storeUploads created
+    // for this request; it is replaced by its serialized form. Any other value under a FILE
+    // field, such as reference JSON sent by the client, is rejected.
+    private void encodeFileAnswers(Map<Long, FormField> fieldsById, Map<String, Object> responseData) {
+        Map<String, Object> encoded = new HashMap<>();
+        for (Map.Entry<String, Object> entry : responseData.entrySet()) {
+            FormField field;
+            try {
+                field = fieldsById.get(Long.parseLong(entry.getKey()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (field == null || field.getFieldType() != FormField.FieldType.FILE) {
+                continue;
+            }
+            
+            Object value = entry.getValue();
+            if (value instanceof FileReference) {
+                try {
+                    encoded.put(entry.getKey(), objectMapper.writeValueAsString(value));
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Cannot serialize file reference: " + e.getMessage());
+                }
+            } else if (value != null && !value.toString().isBlank()) {
+                throw new RuntimeException("Field '" + field.getLabel() + "' only accepts a file uploaded with the submission");
             }
         }
-        
-        // Create response
+        if (!encoded.isEmpty()) {
+            responseData.putAll(encoded);
+        }
+    }
+    
+    private Response newResponse(Form form, User user, String respondentEmail, String respondentName,
+                                 String ipAddress, String userAgent) {
         Response response = new Response();
         response.setForm(form);
         response.setUser(user);
@@ -67,53 +244,144 @@ public class ResponseService {
         response.setRespondentName(respondentName);
         response.setIpAddress(ipAddress);
         response.setUserAgent(userAgent);
+        return response;
+    }
+    
+    private List<ResponseEntry> toEntries(Response response, Map<FormField, String> values) {
+        List<ResponseEntry> entries = new ArrayList<>(values.size());
+        for (Map.Entry<FormField, String> value : values.entrySet()) {
+            entries.add(new ResponseEntry(response, value.getKey(), value.getValue()));
+        }
+        return entries;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ResponseDto> getResponsesByForm(Long formId, User creator) {
+        Form form = getOwnedForm(formId, creator);
         
-        Response savedResponse = responseRepository.save(response);
+        List<ResponseDto> responses = responseRepository.findDtosByFormOrderBySubmittedAtDesc(form);
+        return attachEntries(responses);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ResponseDto> getResponsesByFormAndDateRange(Long formId, LocalDateTime startDate, 
+                                                           LocalDateTime endDate, User creator) {
+        Form form = getOwnedForm(formId, creator);
         
-        // Save response entries
-        for (Map.Entry<String, Object> entry : responseData.entrySet()) {
-            try {
-                Long fieldId = Long.parseLong(entry.getKey());
-                FormField field = formFieldRepository.findById(fieldId)
-                        .orElseThrow(() -> new RuntimeException("Field not found: " + fieldId));
-                
-                if (!field.getForm().getId().equals(formId)) {
-                    throw new RuntimeException("Field does not belong to this form");
-                }
-                
-                String fieldValue = entry.getValue() != null ? entry.getValue().toString() : "";
-                
-                ResponseEntry responseEntry = new ResponseEntry();
-                responseEntry.setResponse(savedResponse);
-                responseEntry.setFormField(field);
-                responseEntry.setFieldValue(fieldValue);
-                
-                responseEntryRepository.save(responseEntry);
-            } catch (NumberFormatException e) {
-                // Skip invalid field IDs
-                continue;
-            }
+        List<ResponseDto> responses = responseRepository.findDtosByFormAndDateRange(form, startDate, endDate);
+        return attachEntries(responses);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ResponseDto> getResponsePageByForm(Long formId, String cursor, int size, User creator) {
+        Form form = getOwnedForm(formId, creator);
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<ResponseDto> responses;
+        if (cursor == null || cursor.isEmpty()) {
+            responses = responseRepository.findFirstDtoPageByForm(form, limit);
+        } else {
+            ResponseCursor after = ResponseCursor.decode(cursor);
+            responses = responseRepository.findDtoPageByFormAfter(form, after.getSubmittedAt(), after.getId(), limit);
         }
         
-        return savedResponse;
+        String nextCursor = null;
+        if (responses.size() > pageSize) {
+            responses = responses.subList(0, pageSize);
+            nextCursor = ResponseCursor.of(responses.get(pageSize - 1)).encode();
+        }
+        
+        return new CursorPage<>(attachEntries(responses), nextCursor);
     }
     
-    public List<ResponseDto> getResponsesByForm(Long formId, User creator) {
-        Form form = formRepository.findById(formId)
-                .orElseThrow(() -> new RuntimeException("Form not found"));
+    // Filters on field values in the database and pages the matches the same way as
+    // getResponsePageByForm; see ResponseSearchQuery for how predicates map to indexes
+    @Transactional(readOnly = true)
+    public CursorPage<ResponseDto> searchResponses(Long formId, ResponseSearchRequest request, User creator) {
+        Form form = getOwnedForm(formId, creator);
         
-        if (!form.getCreator().getId().equals(creator.getId())) {
-            throw new RuntimeException("You don't have permission to view responses for this form");
+        int pageSize = Math.max(1, Math.min(request.getSize() != null ? request.getSize() : 50, MAX_PAGE_SIZE));
+        ResponseCursor after = request.getCursor() != null && !request.getCursor().isEmpty()
+                ? ResponseCursor.decode(request.getCursor())
+                : null;
+        
+        ResponseSearchQuery query = new ResponseSearchQuery(loadFields(form));
+        String sql = query.build(form.getId(), request.getFilter(), after, pageSize + 1);
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(sql, query.getParams(), Long.class);
+        if (ids.isEmpty()) {
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+        
+        List<ResponseDto> responses = responseRepository.findDtosByIds(ids);
+        String nextCursor = null;
+        if (responses.size() > pageSize) {
+            responses = responses.subList(0, pageSize);
+            nextCursor = ResponseCursor.of(responses.get(pageSize - 1)).encode();
         }
         
-        List<Response> responses = responseRepository.findByFormOrderBySubmittedAtDesc(form);
-        return responses.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return new CursorPage<>(attachEntries(responses), nextCursor);
     }
     
-    public List<ResponseDto> getResponsesByFormAndDateRange(Long formId, LocalDateTime startDate, 
-                                                           LocalDateTime endDate, User creator) {
+    @Transactional(readOnly = true)
+    public List<FullTextMatchDto> searchFullText(Long formId, String query, int limit, User creator) throws IOException {
+        Form form = getOwnedForm(formId, creator);
+        return fullTextIndexService.search(form.getId(), query, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public void rebuildFullTextIndex(Long formId, User creator) {
+        Form form = getOwnedForm(formId, creator);
+        fullTextIndexService.rebuildForm(form.getId(), formFieldRepository.findByForm(form));
+    }
+    
+    // Writes every response of the form as newline-delimited JSON
+    @Transactional(readOnly = true)
+    public void streamResponsesByForm(Long formId, User creator, OutputStream out) throws IOException {
+        Form form = getOwnedForm(formId, creator);
+        ObjectWriter writer = objectMapper.writerFor(ResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        
+        forEachResponseBatch(form, batch -> {
+            for (ResponseDto dto : batch) {
+                writer.writeValue(out, dto);
+                out.write('\n');
+            }
+        });
+        out.flush();
+    }
+    
+    // Reads every response of the form through a database cursor and hands them to the
+    // handler in batches with their entries attached. The persistence context is cleared
+    // after each batch, so memory use does not grow with the number of responses.
+    @Transactional(readOnly = true)
+    public void forEachResponseBatch(Form form, ResponseBatchHandler handler) throws IOException {
+        List<ResponseDto> batch = new ArrayList<>(ENTRY_BATCH_SIZE);
+        try (Stream<Response> responses = responseRepository.streamByForm(form)) {
+            Iterator<Response> iterator = responses.iterator();
+            while (iterator.hasNext()) {
+                batch.add(new ResponseDto(iterator.next()));
+                if (batch.size() == ENTRY_BATCH_SIZE) {
+                    handleBatch(batch, handler);
+                }
+            }
+        }
+        handleBatch(batch, handler);
+    }
+    
+    private void handleBatch(List<ResponseDto> batch, ResponseBatchHandler handler) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        handler.handle(attachEntries(batch));
+        batch.clear();
+        entityManager.clear();
+    }
+    
+    public Form getOwnedForm(Long formId, User creator) {
         Form form = formRepository.findById(formId)
                 .orElseThrow(() -> new RuntimeException("Form not found"));
         
@@ -121,22 +389,29 @@ public class ResponseService {
             throw new RuntimeException("You don't have permission to view responses for this form");
         }
         
-        List<Response> responses = responseRepository.findByFormAndDateRange(form, startDate, endDate);
-        return responses.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return form;
     }
     
-    private ResponseDto convertToDto(Response response) {
-        ResponseDto dto = new ResponseDto(response);
-        
-        // Get response entries
-        List<ResponseEntry> entries = responseEntryRepository.findByResponse(response);
-        List<ResponseEntryDto> entryDtos = entries.stream()
-                .map(ResponseEntryDto::new)
-                .collect(Collectors.toList());
-        dto.setEntries(entryDtos);
+    // Loads entries for a page of responses with one IN query instead of one query per response
+    private List<ResponseDto> attachEntries(List<ResponseDto> responses) {
+        for (int from = 0; from < responses.size(); from += ENTRY_BATCH_SIZE) {
+            List<ResponseDto> page = responses.subList(from, Math.min(from + ENTRY_BATCH_SIZE, responses.size()));
+            
+            Map<Long, ResponseDto> pageById = new HashMap<>(page.size() * 2);
+            for (ResponseDto dto : page) {
+                dto.setEntries(new ArrayList<>());
+                pageById.put(dto.getId(), dto);
+            }
+            
+            for (ResponseEntryDto entry : responseEntryRepository.findDtosByResponseIds(pageById.keySet())) {
+                pageById.get(entry.getResponseId()).getEntries().add(entry);
+            }
+        }
         
-        return dto;
+        return responses;
+    }
+    
+    public interface ResponseBatchHandler {
+        void handle(List<ResponseDto> batch) throws IOException;
     }
 }
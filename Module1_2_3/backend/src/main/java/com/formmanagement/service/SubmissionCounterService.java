@@ -0,0 +1,172 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.Form;
+import com.formmanagement.repository.ResponseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory submission counters that replace the COUNT(*) queries on every submission.
+// A form's counter is seeded from the database the first time the form is submitted to;
+// after that limits and duplicate checks are O(1) and enforced atomically, so two
+// concurrent submitters can no longer both pass the last free slot. Counters are local
+// to this instance. The limit and duplicate rule are read from the form on every call,
+// so a form update never reseeds the count and in-flight reservations stay counted.
+@Service
+public class SubmissionCounterService {
+    
+    private final ConcurrentHashMap<Long, FormCounter> counters = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private ResponseRepository responseRepository;
+    
+    // Reserves a slot for one submission or throws if the limit is reached or the email
+    // has already submitted. The reservation must be released if persistence fails.
+    public Reservation reserve(Form form, String respondentEmail) {
+        FormCounter counter = counterFor(form);
+        
+        Integer limit = form.getSubmissionLimit();
+        if (limit != null) {
+            long current;
+            do {
+                current = counter.count.get();
+                if (current >= limit) {
+                    throw new RuntimeException("Form submission limit reached");
+                }
+            } while (!counter.count.compareAndSet(current, current + 1));
+        } else {
+            counter.count.incrementAndGet();
+        }
+        
+        String email = null;
+        if (!form.getAllowDuplicate() && respondentEmail != null) {
+            email = respondentEmail.toLowerCase(Locale.ROOT);
+            if (!counter.addEmail(form, email, responseRepository)) {
+                counter.count.decrementAndGet();
+                throw new RuntimeException("Duplicate submission not allowed");
+            }
+        }
+        
+        return new Reservation(counter, email);
+    }
+    
+    // Counts a submission that was already accepted earlier, e.g. one replayed from the
+    // ingestion journal after a restart, without applying the limit checks again
+    public Reservation reserveAccepted(Form form, String respondentEmail) {
+        FormCounter counter = counterFor(form);
+        counter.count.incrementAndGet();
+        
+        String email = null;
+        if (!form.getAllowDuplicate() && respondentEmail != null) {
+            email = respondentEmail.toLowerCase(Locale.ROOT);
+            counter.addEmail(form, email, responseRepository);
+        }
+        return new Reservation(counter, email);
+    }
+    
+    // Releases the reservation automatically unless the current transaction commits
+    public void releaseOnRollback(Reservation reservation) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reservation.release();
+                }
+            }
+        });
+    }
+    
+    // Called when a form's settings change. Emails are only tracked while duplicates are
+    // disallowed, so the set is reloaded on next use; the count and the emails of
+    // in-flight reservations are carried over.
+    public void refresh(Long formId) {
+        FormCounter counter = counters.get(formId);
+        if (counter != null) {
+            counter.markEmailsStale();
+        }
+    }
+    
+    public void evict(Long formId) {
+        counters.remove(formId);
+    }
+    
+    private FormCounter counterFor(Form form) {
+        FormCounter counter = counters.get(form.getId());
+        if (counter != null) {
+            return counter;
+        }
+        // Seeded outside the map so the count query never holds a map bin lock; concurrent
+        // first submissions may each count, but all of them use the counter that was stored first
+        FormCounter seeded = new FormCounter(responseRepository.countByForm(form));
+        FormCounter existing = counters.putIfAbsent(form.getId(), seeded);
+        return existing != null ? existing : seeded;
+    }
+    
+    public static class Reservation {
+        
+        private final FormCounter counter;
+        private final String email;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private Reservation(FormCounter counter, String email) {
+            this.counter = counter;
+            this.email = email;
+        }
+        
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                counter.count.decrementAndGet();
+                if (email != null) {
+                    counter.removeEmail(email);
+                }
+            }
+        }
+    }
+    
+    private static class FormCounter {
+        
+        private final AtomicLong count;
+        
+        // Guarded by this; only touched for forms that disallow duplicates
+        private Set<String> emails;
+        private boolean emailsStale;
+        
+        private FormCounter(long seed) {
+            this.count = new AtomicLong(seed);
+        }
+        
+        private synchronized boolean addEmail(Form form, String email, ResponseRepository responseRepository) {
+            if (emails == null || emailsStale) {
+                // Reloaded from the database; emails still held by reservations are kept
+                Set<String> loaded = new HashSet<>();
+                for (String stored : responseRepository.findRespondentEmailsByForm(form)) {
+                    loaded.add(stored.toLowerCase(Locale.ROOT));
+                }
+                if (emails != null) {
+                    loaded.addAll(emails);
+                }
+                emails = loaded;
+                emailsStale = false;
+            }
+            return emails.add(email);
+        }
+        
+        private synchronized void removeEmail(String email) {
+            if (emails != null) {
+                emails.remove(email);
+            }
+        }
+        
+        private synchronized void markEmailsStale() {
+            emailsStale = true;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.dto.SubmissionReceipt;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormRepository;
+import com.formmanagement.repository.ResponseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Optional write-behind path for POST /responses/submit. Submissions are validated on the
+// request thread, journaled to the spill directory and queued; worker threads drain the
+// queue in batches. A journal file is only deleted once its batch has committed, so
+// anything still queued at shutdown or crash is replayed on the next start; entries whose
+// batch had committed are recognised by their receipt id and only cleaned up.
+@Service
+public class SubmissionIngestionService {
+    
+    private static final String JOURNAL_SUFFIX = ".json";
+    
+    @Value("${ingestion.enabled}")
+    private boolean enabled;
+    
+    @Value("${ingestion.queue-capacity}")
+    private int queueCapacity;
+    
+    @Value("${ingestion.workers}")
+    private int workers;
+    
+    @Value("${ingestion.batch-size}")
+    private int batchSize;
+    
+    @Value("${ingestion.spill-dir}")
+    private String spillDir;
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private SubmissionCounterService submissionCounterService;
+    
+    @Autowired
+    private FormRepository formRepository;
+    
+    @Autowired
+    private ResponseRepository responseRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private BlockingQueue<PendingSubmission> queue;
+    
+    // Submission slots held by queued submissions until they are committed
+    private final Map<String, SubmissionCounterService.Reservation> reservations = new ConcurrentHashMap<>();
+    
+    private ExecutorService executor;
+    
+    // Journal files left by the previous run, listed before any new submission is accepted
+    private List<Path> replayFiles;
+    
+    private Thread replayThread;
+    
+    private Path journalDir;
+    
+    private Path failedDir;
+    
+    private Timer drainLatency;
+    
+    private Counter rejected;
+    
+    private volatile boolean running;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        
+        journalDir = Paths.get(spillDir);
+        failedDir = journalDir.resolve("failed");
+        Files.createDirectories(failedDir);
+        
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Submissions accepted but not yet persisted")
+                .register(meterRegistry);
+        drainLatency = Timer.builder("ingestion.drain.latency")
+                .description("Time from acceptance until a submission is committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejected = Counter.builder("ingestion.rejected")
+                .description("Submissions rejected because the queue was full")
+                .register(meterRegistry);
+        
+        replayFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, "*" + JOURNAL_SUFFIX)) {
+            stream.forEach(replayFiles::add);
+        }
+        
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("ingestion-"));
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::drainLoop);
+        }
+    }
+    
+    // The journal can hold more entries than the queue, so it is replayed on its own thread
+    // once the application is up rather than blocking startup until the workers catch up
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplay() {
+        if (!enabled) {
+            return;
+        }
+        
+        replayThread = new CustomizableThreadFactory("ingestion-replay-").newThread(() -> {
+            try {
+                replayJournal();
+            } catch (IOException e) {
+                System.err.println("Cannot replay ingestion journal: " + e.getMessage());
+            }
+        });
+        replayThread.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        
+        // Queued submissions stay journaled and are replayed on the next start
+        running = false;
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public SubmissionReceipt accept(Long formId, Map<String, Object> responseData, String respondentEmail,
+                                    String respondentName, String ipAddress, String userAgent, User user) {
+        Form form = responseService.validateSubmission(formId, responseData, user);
+        
+        if (queue.remainingCapacity() == 0) {
+            rejected.increment();
+            throw new IngestionQueueFullException();
+        }
+        
+        SubmissionCounterService.Reservation reservation = submissionCounterService.reserve(form, respondentEmail);
+        PendingSubmission submission = new PendingSubmission(UUID.randomUUID().toString(), formId,
+                user != null ? user.getId() : null, responseData, respondentEmail, respondentName, ipAddress, userAgent);
+        try {
+            writeJournal(submission);
+        } catch (RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+        
+        reservations.put(submission.getReceiptId(), reservation);
+        if (!queue.offer(submission)) {
+            deleteJournal(submission);
+            reservations.remove(submission.getReceiptId()).release();
+            rejected.increment();
+            throw new IngestionQueueFullException();
+        }
+        
+        return new SubmissionReceipt(submission);
+    }
+    
+    private void drainLoop() {
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingSubmission first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void persist(List<PendingSubmission> batch) {
+        try {
+            responseService.persistSubmissions(batch);
+            batch.forEach(this::completed);
+        } catch (RuntimeException e) {
+            // Isolate the failing submission so the rest of the batch still commits
+            for (PendingSubmission submission : batch) {
+                try {
+                    responseService.persistSubmissions(List.of(submission));
+                    completed(submission);
+                } catch (RuntimeException ex) {
+                    System.err.println("Cannot persist submission " + submission.getReceiptId() + ": " + ex.getMessage());
+                    SubmissionCounterService.Reservation reservation = reservations.remove(submission.getReceiptId());
+                    if (reservation != null) {
+                        reservation.release();
+                    }
+                    moveToFailed(submission);
+                }
+            }
+        }
+    }
+    
+    private void completed(PendingSubmission submission) {
+        reservations.remove(submission.getReceiptId());
+        deleteJournal(submission);
+        drainLatency.record(Duration.between(submission.getAcceptedAt(), LocalDateTime.now()));
+    }
+    
+    private void replayJournal() throws IOException {
+        for (Path file : replayFiles) {
+            if (!running) {
+                return;
+            }
+            try {
+                PendingSubmission submission = objectMapper.readValue(file.toFile(), PendingSubmission.class);
+                if (responseRepository.existsByReceiptId(submission.getReceiptId())) {
+                    // Committed before the crash, only the journal file was left behind
+                    deleteJournal(submission);
+                    continue;
+                }
+                
+                // Replayed submissions were accepted before the restart, so they count against the limits
+                formRepository.findById(submission.getFormId()).ifPresent(form -> reservations.put(
+                        submission.getReceiptId(), submissionCounterService.reserveAccepted(form, submission.getRespondentEmail())));
+                queue.put(submission);
+            } catch (IOException e) {
+                System.err.println("Cannot replay journal file " + file + ": " + e.getMessage());
+                Files.move(file, failedDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    // Written to a temp file, synced and renamed so a crash never leaves a partial entry
+    private void writeJournal(PendingSubmission submission) {
+        Path target = journalFile(submission);
+        Path temp = journalDir.resolve(submission.getReceiptId() + ".tmp");
+        try {
+            Files.write(temp, objectMapper.writeValueAsBytes(submission),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot journal submission: " + e.getMessage());
+        }
+    }
+    
+    private void deleteJournal(PendingSubmission submission) {
+        try {
+            Files.deleteIfExists(journalFile(submission));
+        } catch (IOException e) {
+            System.err.println("Cannot delete journal file for " + submission.getReceiptId() + ": " + e.getMessage());
+        }
+    }
+    
+    private void moveToFailed(PendingSubmission submission) {
+        try {
+            Files.move(journalFile(submission), failedDir.resolve(submission.getReceiptId() + JOURNAL_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Cannot move journal file for " + submission.getReceiptId() + ": " + e.getMessage());
+        }
+    }
+    
+    private Path journalFile(PendingSubmission submission) {
+        return journalDir.resolve(submission.getReceiptId() + JOURNAL_SUFFIX);
+    }
+}
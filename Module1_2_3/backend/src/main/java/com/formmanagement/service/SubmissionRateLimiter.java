@@ -0,0 +1,96 @@
+package com.formmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// In-memory submission limits, one token bucket per client IP and one per form. Buckets live
+// in size-bounded Caffeine maps and expire once idle longer than a full refill, when they
+// would be full again anyway, so memory stays bounded no matter how many addresses or form
+// ids a client cycles through. Limits are per instance, not shared across a cluster.
+@Service
+public class SubmissionRateLimiter {
+    
+    @Value("${rate-limit.submissions.enabled}")
+    private boolean enabled;
+    
+    @Value("${rate-limit.submissions.per-ip.capacity}")
+    private int perIpCapacity;
+    
+    @Value("${rate-limit.submissions.per-ip.per-minute}")
+    private int perIpPerMinute;
+    
+    @Value("${rate-limit.submissions.per-form.capacity}")
+    private int perFormCapacity;
+    
+    @Value("${rate-limit.submissions.per-form.per-minute}")
+    private int perFormPerMinute;
+    
+    @Value("${rate-limit.submissions.max-tracked-keys}")
+    private long maxTrackedKeys;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Cache<String, TokenBucket> ipBuckets;
+    
+    private Cache<Long, TokenBucket> formBuckets;
+    
+    private Counter ipRejected;
+    
+    private Counter formRejected;
+    
+    @PostConstruct
+    public void start() {
+        ipBuckets = buckets(perIpCapacity, perIpPerMinute);
+        formBuckets = buckets(perFormCapacity, perFormPerMinute);
+        ipRejected = Counter.builder("submissions.rate_limited").tag("scope", "ip")
+                .description("Submissions rejected by the per-IP limit")
+                .register(meterRegistry);
+        formRejected = Counter.builder("submissions.rate_limited").tag("scope", "form")
+                .description("Submissions rejected by the per-form limit")
+                .register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Returns 0 if the submission may proceed, otherwise the nanos until it may be retried
+    public long tryAcquire(String clientIp, Long formId) {
+        TokenBucket ipBucket = ipBuckets.get(clientIp, key -> newBucket(perIpCapacity, perIpPerMinute));
+        long wait = ipBucket.tryConsume();
+        if (wait > 0) {
+            ipRejected.increment();
+            return wait;
+        }
+        
+        wait = formBuckets.get(formId, key -> newBucket(perFormCapacity, perFormPerMinute)).tryConsume();
+        if (wait > 0) {
+            // A request the form refuses does not count against the address
+            ipBucket.refund();
+            formRejected.increment();
+        }
+        return wait;
+    }
+    
+    private <K> Cache<K, TokenBucket> buckets(int capacity, int perMinute) {
+        long refillNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        return Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofNanos(refillNanos * capacity))
+                .build();
+    }
+    
+    private TokenBucket newBucket(int capacity, int perMinute) {
+        return new TokenBucket(capacity, TimeUnit.MINUTES.toNanos(1) / perMinute);
+    }
+}
@@ -0,0 +1,40 @@
+package com.formmanagement.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket in GCRA form: instead of a token count it keeps the theoretical
+// arrival time of the next request in one AtomicLong, so taking a token is a single CAS and
+// refilling needs no timer. Holds capacity tokens and regains one every refillIntervalNanos.
+public final class TokenBucket {
+    
+    private final long refillIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucket(int capacity, long refillIntervalNanos) {
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstToleranceNanos = (capacity - 1) * refillIntervalNanos;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+    
+    // Takes a token if one is available; otherwise returns the nanos until one will be
+    public long tryConsume() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long arrival = current - now > 0 ? current : now;
+            long wait = arrival - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + refillIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    // Gives back a token taken by tryConsume, e.g. when a later check refuses the request
+    public void refund() {
+        theoreticalArrival.addAndGet(-refillIntervalNanos);
+    }
+}
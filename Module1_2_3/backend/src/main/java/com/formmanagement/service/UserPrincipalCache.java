@@ -0,0 +1,39 @@
+package com.formmanagement.service;
+
+import com.formmanagement.config.CacheConfig;
+import com.formmanagement.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+@Service
+public class UserPrincipalCache {
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
+    // Resolves the principal for a verified token. Entries are keyed by username and token
+    // issue time, so a fresh login never reuses a principal cached for an older token.
+    public User getUser(String username, Date issuedAt) {
+        PrincipalKey key = new PrincipalKey(username, issuedAt != null ? issuedAt.getTime() : 0L);
+        return (User) nativeCache().get(key, k -> userDetailsService.loadUserByUsername(username));
+    }
+    
+    public void evict(String username) {
+        nativeCache().asMap().keySet()
+                .removeIf(key -> ((PrincipalKey) key).username().equals(username));
+    }
+    
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.PRINCIPALS_CACHE)).getNativeCache();
+    }
+    
+    private record PrincipalKey(String username, long issuedAt) {}
+}
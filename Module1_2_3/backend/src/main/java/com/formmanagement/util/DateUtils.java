@@ -0,0 +1,31 @@
+package com.formmanagement.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+public final class DateUtils {
+    
+    // Four-digit years only; the same syntax V2 backfilled date_value with
+    private static final Pattern DATE = Pattern.compile("[0-9]{4}-[0-9]{2}-[0-9]{2}");
+    
+    private DateUtils() {}
+    
+    // Calendar date of a DATE answer in yyyy-MM-dd format, or null. Validation, storage and
+    // search all parse answers here so that every accepted answer gets a date_value.
+    public static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        
+        String trimmed = value.trim();
+        if (!DATE.matcher(trimmed).matches()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
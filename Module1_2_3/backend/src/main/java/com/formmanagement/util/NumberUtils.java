@@ -0,0 +1,26 @@
+package com.formmanagement.util;
+
+import java.util.regex.Pattern;
+
+public final class NumberUtils {
+    
+    // Plain decimals with an optional exponent; the same syntax V2 backfilled numeric_value with
+    private static final Pattern DECIMAL = Pattern.compile("[-+]?([0-9]+\\.?[0-9]*|\\.[0-9]+)([eE][-+]?[0-9]+)?");
+    
+    private NumberUtils() {}
+    
+    // Finite value of a NUMBER answer, or null. Double.parseDouble alone would also accept
+    // NaN, Infinity, hex floats such as 0x1p3 and type suffixes such as 1d.
+    public static Double parseDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        
+        String trimmed = value.trim();
+        if (!DECIMAL.matcher(trimmed).matches()) {
+            return null;
+        }
+        double number = Double.parseDouble(trimmed);
+        return Double.isFinite(number) ? number : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.formmanagement.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public final class RequestUtils {
+    
+    private RequestUtils() {}
+    
+    // The peer address as resolved by Tomcat's RemoteIpValve, which only takes X-Forwarded-For
+    // from the proxies in server.tomcat.remoteip.internal-proxies; the header is never read here
+    public static String getClientIpAddress(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
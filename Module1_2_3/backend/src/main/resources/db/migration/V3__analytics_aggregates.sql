@@ -0,0 +1,39 @@
+-- Pre-aggregated analytics, maintained in the submission transaction
+CREATE TABLE IF NOT EXISTS form_analytics_options (
+    form_field_id BIGINT NOT NULL,
+    option_value VARCHAR(255) NOT NULL,
+    response_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (form_field_id, option_value),
+    FOREIGN KEY (form_field_id) REFERENCES form_fields(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS form_analytics_numeric (
+    form_field_id BIGINT PRIMARY KEY,
+    value_count BIGINT NOT NULL DEFAULT 0,
+    value_sum DOUBLE NOT NULL DEFAULT 0,
+    min_value DOUBLE,
+    max_value DOUBLE,
+    FOREIGN KEY (form_field_id) REFERENCES form_fields(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS form_analytics_hourly (
+    form_id BIGINT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    submission_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (form_id, bucket_start),
+    FOREIGN KEY (form_id) REFERENCES forms(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS analytics_backfill_jobs (
+    form_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    entry_high_water_mark BIGINT NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    total_entries BIGINT NOT NULL,
+    processed_entries BIGINT NOT NULL,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    FOREIGN KEY (form_id) REFERENCES forms(id) ON DELETE CASCADE
+);
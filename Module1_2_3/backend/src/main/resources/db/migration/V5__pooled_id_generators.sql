@@ -0,0 +1,16 @@
+-- Pooled id allocation for the entities, replacing AUTO_INCREMENT as the id source
+-- Each instance reserves blocks of 50 ids (the allocationSize of the @TableGenerator
+-- mappings) with one update here, so inserts no longer need the generated key back and
+-- Hibernate can batch them. The pooled optimizer hands out (next_val - 49 .. next_val),
+-- so every row is seeded a full block above the current maximum id.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 51 FROM users;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'forms', COALESCE(MAX(id), 0) + 51 FROM forms;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'form_fields', COALESCE(MAX(id), 0) + 51 FROM form_fields;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'responses', COALESCE(MAX(id), 0) + 51 FROM responses;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'response_entries', COALESCE(MAX(id), 0) + 51 FROM response_entries;
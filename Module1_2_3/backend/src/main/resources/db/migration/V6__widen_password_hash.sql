@@ -0,0 +1,2 @@
+-- Argon2 hashes with their {argon2} prefix are longer than the 100 characters BCrypt needed
+ALTER TABLE users MODIFY password VARCHAR(255) NOT NULL;
@@ -0,0 +1,19 @@
+-- Transactional outbox for confirmation mails, drained by MailOutboxDispatcher
+
+CREATE TABLE mail_outbox (
+    id BIGINT PRIMARY KEY,
+    response_id BIGINT NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME NOT NULL,
+    sent_at DATETIME NULL,
+    INDEX idx_mail_outbox_status_next_attempt (status, next_attempt_at),
+    FOREIGN KEY (response_id) REFERENCES responses(id) ON DELETE CASCADE
+);
+
+INSERT INTO id_generators (sequence_name, next_val) VALUES ('mail_outbox', 51);
@@ -0,0 +1,5 @@
+-- Receipt id of a submission accepted by the ingestion queue; unique so a replayed journal
+-- entry whose batch had already committed is recognised instead of stored a second time
+ALTER TABLE responses ADD COLUMN receipt_id VARCHAR(36) NULL;
+
+CREATE UNIQUE INDEX uk_responses_receipt_id ON responses (receipt_id);
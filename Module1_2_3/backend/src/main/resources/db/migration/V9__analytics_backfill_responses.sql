@@ -0,0 +1,11 @@
+-- Responses a backfill job counts, fixed when the job resets the aggregates. Responses that
+-- commit later are counted incrementally and are not listed, so a failed or interrupted job
+-- can resume from its checkpoint without counting them twice.
+
+CREATE TABLE analytics_backfill_responses (
+    form_id BIGINT NOT NULL,
+    response_id BIGINT NOT NULL,
+    PRIMARY KEY (form_id, response_id),
+    FOREIGN KEY (form_id) REFERENCES forms(id) ON DELETE CASCADE,
+    FOREIGN KEY (response_id) REFERENCES responses(id) ON DELETE CASCADE
+);
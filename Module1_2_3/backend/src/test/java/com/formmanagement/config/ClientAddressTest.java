@@ -0,0 +1,51 @@
+package com.formmanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The test client connects from loopback, which the default trusted-proxies matches, so it
+// stands in for the load balancer; the per-IP limit shows which address a request was keyed on
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "rate-limit.submissions.per-ip.capacity=2",
+        "rate-limit.submissions.per-ip.per-minute=1"
+})
+@ActiveProfiles("test")
+class ClientAddressTest {
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Test
+    void ignoresHopsAddedByTheClient() {
+        // The client prepends made-up addresses; the proxy appends the one it saw
+        assertThat(submit("203.0.113.1, 198.51.100.7")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(submit("203.0.113.2, 198.51.100.7")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(submit("203.0.113.3, 198.51.100.7")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        
+        assertThat(submit("198.51.100.8")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    @Test
+    void skipsTrustedHops() {
+        assertThat(submit("198.51.100.9, 127.0.0.2")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(submit("198.51.100.9")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(submit("198.51.100.9, 127.0.0.3")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    private HttpStatus submit(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return HttpStatus.valueOf(restTemplate.postForEntity("/responses/submit/999999",
+                new HttpEntity<>("{}", headers), String.class).getStatusCode().value());
+    }
+}
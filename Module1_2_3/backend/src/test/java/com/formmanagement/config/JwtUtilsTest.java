@@ -0,0 +1,69 @@
+package com.formmanagement.config;
+
+import com.formmanagement.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+    
+    private static final String OLD_SECRET = "oldSecretKeyForJwtUtilsTestOnly0123456789";
+    private static final String NEW_SECRET = "newSecretKeyForJwtUtilsTestOnly0123456789";
+    
+    @Test
+    void verifiesItsOwnTokens() {
+        JwtUtils jwtUtils = jwtUtils(NEW_SECRET, "new", "");
+        
+        String token = jwtUtils.generateJwtToken(authentication("ann"));
+        
+        assertThat(jwtUtils.getUserNameFromJwtToken(token)).isEqualTo("ann");
+        assertThat(jwtUtils.getClaimsFromJwtToken(token).getIssuedAt()).isNotNull();
+    }
+    
+    @Test
+    void acceptsTokensOfARetiredKeyUntilItIsDropped() {
+        String token = jwtUtils(OLD_SECRET, "old", "").generateJwtToken(authentication("ann"));
+        
+        // Rotated: the old key is listed under previous-keys
+        JwtUtils rotated = jwtUtils(NEW_SECRET, "new", "old=" + OLD_SECRET);
+        assertThat(rotated.validateJwtToken(token)).isTrue();
+        assertThat(rotated.getUserNameFromJwtToken(token)).isEqualTo("ann");
+        
+        // Dropped: the kid is no longer known
+        assertThat(jwtUtils(NEW_SECRET, "new", "").validateJwtToken(token)).isFalse();
+    }
+    
+    @Test
+    void verifiesTokensWithoutKeyIdWithTheCurrentKey() {
+        String token = Jwts.builder()
+                .setSubject("ann")
+                .setIssuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(NEW_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        
+        assertThat(jwtUtils(NEW_SECRET, "new", "old=" + OLD_SECRET).getUserNameFromJwtToken(token)).isEqualTo("ann");
+    }
+    
+    private static JwtUtils jwtUtils(String secret, String keyId, String previousKeys) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtils, "jwtKeyId", keyId);
+        ReflectionTestUtils.setField(jwtUtils, "jwtPreviousKeys", previousKeys);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+    
+    private static UsernamePasswordAuthenticationToken authentication(String username) {
+        User user = new User(username, username + "@example.com", "secret", User.Role.USER);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
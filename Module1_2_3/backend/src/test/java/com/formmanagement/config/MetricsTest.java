@@ -0,0 +1,98 @@
+package com.formmanagement.config;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.UserRepository;
+import com.formmanagement.service.FormService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The latency series documented in DEPLOYMENT.md must exist and carry histogram buckets.
+// Spring Boot tests turn metric export off unless asked for it.
+@SpringBootTest
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+    
+    @Test
+    void timesPublicServiceMethods() {
+        User owner = createOwner();
+        
+        formService.getFormsByCreator(owner, PageRequest.of(0, 10));
+        
+        Timer timer = meterRegistry.find("service.calls")
+                .tag("class", FormService.class.getName())
+                .tag("method", "getFormsByCreator")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        assertThat(prometheusMeterRegistry.scrape())
+                .contains("service_calls_seconds_bucket{")
+                .contains("method=\"getFormsByCreator\"");
+    }
+    
+    @Test
+    void timesDtoConversions() {
+        User owner = createOwner();
+        
+        formService.getFormsByCreator(owner, PageRequest.of(0, 10));
+        
+        Timer batch = meterRegistry.find("form.dto.conversion").tag("mode", "batch").timer();
+        assertThat(batch).isNotNull();
+        assertThat(batch.count()).isPositive();
+        assertThat(prometheusMeterRegistry.scrape()).contains("form_dto_conversion_seconds_bucket{");
+    }
+    
+    @Test
+    void timesJwtValidation() {
+        jwtUtils.getClaimsFromJwtToken("not-a-token");
+        
+        Timer timer = meterRegistry.find("jwt.validation").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        assertThat(prometheusMeterRegistry.scrape()).contains("jwt_validation_seconds_bucket{");
+    }
+    
+    private User createOwner() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormFieldDto field = new FormFieldDto();
+        field.setLabel("Name");
+        field.setFieldType("TEXT");
+        field.setFieldOrder(1);
+        FormDto form = new FormDto();
+        form.setTitle("Metrics");
+        form.setFields(List.of(field));
+        formService.createForm(form, owner);
+        return owner;
+    }
+}
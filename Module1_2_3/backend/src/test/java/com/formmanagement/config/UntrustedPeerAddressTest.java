@@ -0,0 +1,42 @@
+package com.formmanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// With loopback not among the trusted proxies, the test client is an ordinary client and
+// its X-Forwarded-For header must not change the address it is limited by
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.remoteip.internal-proxies=10\\.0\\.0\\.1",
+        "rate-limit.submissions.per-ip.capacity=2",
+        "rate-limit.submissions.per-ip.per-minute=1"
+})
+@ActiveProfiles("test")
+class UntrustedPeerAddressTest {
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Test
+    void ignoresForwardedForFromUntrustedPeer() {
+        assertThat(submit("198.51.100.1")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(submit("198.51.100.2")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(submit("198.51.100.3")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    private HttpStatus submit(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return HttpStatus.valueOf(restTemplate.postForEntity("/responses/submit/999999",
+                new HttpEntity<>("{}", headers), String.class).getStatusCode().value());
+    }
+}
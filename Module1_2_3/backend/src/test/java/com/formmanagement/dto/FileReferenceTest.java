@@ -0,0 +1,47 @@
+package com.formmanagement.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileReferenceTest {
+    
+    private static final String HASH = "a".repeat(64);
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void parsesSerializedReference() throws Exception {
+        String value = objectMapper.writeValueAsString(new FileReference(HASH, "cv.pdf", "application/pdf", 1234L));
+        
+        FileReference reference = FileReference.parse(value, objectMapper);
+        
+        assertThat(reference).isNotNull();
+        assertThat(reference.getSha256()).isEqualTo(HASH);
+        assertThat(reference.getFilename()).isEqualTo("cv.pdf");
+        assertThat(reference.getContentType()).isEqualTo("application/pdf");
+        assertThat(reference.getSize()).isEqualTo(1234L);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "cv.pdf",
+            "",
+            "{not json",
+            "{\"filename\": \"cv.pdf\"}",
+            "{\"sha256\": \"../../etc/passwd\"}",
+            "{\"sha256\": \"AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA\"}",
+            "{\"sha256\": \"abc\"}"
+    })
+    void rejectsValuesThatAreNotReferences(String value) {
+        assertThat(FileReference.parse(value, objectMapper)).isNull();
+    }
+    
+    @Test
+    void rejectsNull() {
+        assertThat(FileReference.parse(null, objectMapper)).isNull();
+    }
+}
@@ -0,0 +1,126 @@
+package com.formmanagement.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the migrations on H2 in MySQL mode, from an empty database and from each schema that
+// existed before Flyway managed it
+class MigrationTest {
+    
+    @Test
+    void migratesEmptyDatabase() throws SQLException {
+        DataSource dataSource = newDatabase();
+        
+        migrate(dataSource);
+        
+        assertCurrentSchema(dataSource);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "db/migration/V1__baseline_schema.sql",
+        "db/legacy/ddl-auto-schema.sql"
+    })
+    void upgradesExistingDatabase(String legacySchema) throws SQLException {
+        DataSource dataSource = newDatabase();
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(legacySchema));
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        long responseId = seedResponse(jdbc);
+        
+        migrate(dataSource);
+        
+        assertCurrentSchema(dataSource);
+        assertThat(jdbc.queryForObject("SELECT numeric_value FROM response_entries WHERE response_id = ? AND field_value = '42'",
+                Double.class, responseId)).isEqualTo(42.0);
+        assertThat(jdbc.queryForObject("SELECT date_value FROM response_entries WHERE response_id = ? AND field_value = '2024-05-01'",
+                LocalDateTime.class, responseId)).isEqualTo(LocalDateTime.of(2024, 5, 1, 0, 0));
+        assertThat(jdbc.queryForObject("SELECT short_value FROM response_entries WHERE response_id = ? AND field_value = 'hello'",
+                String.class, responseId)).isEqualTo("hello");
+        assertThat(jdbc.queryForObject("SELECT numeric_value FROM response_entries WHERE response_id = ? AND field_value = 'NaN'",
+                Double.class, responseId)).isNull();
+    }
+    
+    private DataSource newDatabase() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+    
+    // Same settings as spring.flyway in application.yml
+    private void migrate(DataSource dataSource) {
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .javaMigrations(new V2__typed_response_values(), new V4__composite_indexes())
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        flyway.migrate();
+        
+        for (MigrationInfo migration : flyway.info().applied()) {
+            assertThat(migration.getState()).as("V" + migration.getVersion())
+                    .isIn(MigrationState.SUCCESS, MigrationState.BASELINE);
+        }
+    }
+    
+    private long seedResponse(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (username, email, password, role) VALUES ('owner', 'owner@example.com', 'x', 'USER')");
+        long userId = jdbc.queryForObject("SELECT id FROM users WHERE username = 'owner'", Long.class);
+        jdbc.update("INSERT INTO forms (title, creator_id, is_active, is_public) VALUES ('Legacy', ?, TRUE, TRUE)", userId);
+        long formId = jdbc.queryForObject("SELECT MAX(id) FROM forms", Long.class);
+        jdbc.update("INSERT INTO responses (form_id, submitted_at) VALUES (?, CURRENT_TIMESTAMP)", formId);
+        long responseId = jdbc.queryForObject("SELECT MAX(id) FROM responses", Long.class);
+        
+        String[][] answers = {{"NUMBER", "42"}, {"DATE", "2024-05-01"}, {"TEXT", "hello"}, {"NUMBER", "NaN"}};
+        for (int i = 0; i < answers.length; i++) {
+            jdbc.update("INSERT INTO form_fields (form_id, label, field_type, field_order) VALUES (?, ?, ?, ?)",
+                        formId, "Field " + i, answers[i][0], i);
+            long fieldId = jdbc.queryForObject("SELECT MAX(id) FROM form_fields", Long.class);
+            jdbc.update("INSERT INTO response_entries (response_id, form_field_id, field_value) VALUES (?, ?, ?)",
+                        responseId, fieldId, answers[i][1]);
+        }
+        return responseId;
+    }
+    
+    private void assertCurrentSchema(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(SchemaInfo.hasColumn(connection, "response_entries", "numeric_value")).isTrue();
+            assertThat(SchemaInfo.hasColumn(connection, "response_entries", "date_value")).isTrue();
+            assertThat(SchemaInfo.hasColumn(connection, "response_entries", "short_value")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "response_entries", "idx_response_entries_field_numeric")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "response_entries", "idx_response_entries_field_date")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "response_entries", "idx_response_entries_field_short")).isTrue();
+            
+            assertThat(SchemaInfo.hasIndex(connection, "responses", "idx_responses_form_submitted")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "responses", "idx_responses_form_email")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "forms", "idx_forms_creator_active_created")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "forms", "idx_forms_public_active_created")).isTrue();
+            assertThat(SchemaInfo.hasIndex(connection, "form_fields", "idx_form_fields_form_order")).isTrue();
+            
+            assertThat(SchemaInfo.hasIndex(connection, "responses", "idx_responses_form")).isFalse();
+            assertThat(SchemaInfo.hasIndex(connection, "forms", "idx_forms_creator")).isFalse();
+            assertThat(SchemaInfo.hasIndex(connection, "forms", "idx_forms_public")).isFalse();
+            assertThat(SchemaInfo.hasIndex(connection, "form_fields", "idx_form_fields_form")).isFalse();
+            
+            assertThat(SchemaInfo.hasColumn(connection, "mail_outbox", "next_attempt_at")).isTrue();
+            assertThat(SchemaInfo.hasColumn(connection, "analytics_backfill_responses", "response_id")).isTrue();
+        }
+    }
+}
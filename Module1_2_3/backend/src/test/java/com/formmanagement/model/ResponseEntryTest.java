@@ -0,0 +1,84 @@
+package com.formmanagement.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseEntryTest {
+    
+    @Test
+    void storesNumberAsNumericValue() {
+        ResponseEntry entry = entry(FormField.FieldType.NUMBER, " 42.5 ");
+        
+        assertThat(entry.getNumericValue()).isEqualTo(42.5);
+        assertThat(entry.getDateValue()).isNull();
+        assertThat(entry.getShortValue()).isNull();
+        assertThat(entry.getFieldValue()).isEqualTo(" 42.5 ");
+    }
+    
+    @Test
+    void leavesNonDecimalNumberUntyped() {
+        assertThat(entry(FormField.FieldType.NUMBER, "NaN").getNumericValue()).isNull();
+        assertThat(entry(FormField.FieldType.NUMBER, "12 apples").getNumericValue()).isNull();
+    }
+    
+    @Test
+    void storesDatesInTheValidatedFormatAsDateValue() {
+        assertThat(entry(FormField.FieldType.DATE, " 2024-03-01 ").getDateValue())
+                .isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+        // FieldValidator refuses these, so they are not typed either
+        assertThat(entry(FormField.FieldType.DATE, "2024-03-01T14:30").getDateValue()).isNull();
+        assertThat(entry(FormField.FieldType.DATE, "+12024-03-01").getDateValue()).isNull();
+        assertThat(entry(FormField.FieldType.DATE, "01/03/2024").getDateValue()).isNull();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(value = FormField.FieldType.class, names = {"TEXT", "EMAIL", "RADIO", "DROPDOWN"})
+    void storesShortSingleValuedAnswersAsShortValue(FormField.FieldType type) {
+        assertThat(entry(type, "Option A").getShortValue()).isEqualTo("Option A");
+    }
+    
+    @Test
+    void leavesTextLongerThanShortColumnUntyped() {
+        String exact = "x".repeat(ResponseEntry.SHORT_VALUE_LENGTH);
+        
+        assertThat(entry(FormField.FieldType.TEXT, exact).getShortValue()).isEqualTo(exact);
+        assertThat(entry(FormField.FieldType.TEXT, exact + "x").getShortValue()).isNull();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(value = FormField.FieldType.class, names = {"TEXTAREA", "CHECKBOX", "FILE"})
+    void leavesLongAndMultiValuedAnswersUntyped(FormField.FieldType type) {
+        ResponseEntry entry = entry(type, "a,b");
+        
+        assertThat(entry.getNumericValue()).isNull();
+        assertThat(entry.getDateValue()).isNull();
+        assertThat(entry.getShortValue()).isNull();
+    }
+    
+    @Test
+    void leavesBlankAnswerUntyped() {
+        assertThat(entry(FormField.FieldType.NUMBER, "  ").getNumericValue()).isNull();
+        assertThat(entry(FormField.FieldType.TEXT, "").getShortValue()).isNull();
+        assertThat(entry(FormField.FieldType.TEXT, null).getShortValue()).isNull();
+    }
+    
+    @Test
+    void settingValueRederivesTypedColumns() {
+        ResponseEntry entry = entry(FormField.FieldType.NUMBER, "1");
+        
+        entry.setFieldValue("7");
+        assertThat(entry.getNumericValue()).isEqualTo(7.0);
+        
+        entry.setFieldValue("seven");
+        assertThat(entry.getNumericValue()).isNull();
+    }
+    
+    private ResponseEntry entry(FormField.FieldType type, String value) {
+        return new ResponseEntry(new Response(), new FormField(null, "Field", type, 1), value);
+    }
+}
@@ -0,0 +1,152 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.service.FormService;
+import com.formmanagement.service.ResponseService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ids come from id_generators in blocks of 50, so inserts need no generated key back and
+// Hibernate groups them into JDBC batches of hibernate.jdbc.batch_size
+@SpringBootTest
+@ActiveProfiles("test")
+class PooledIdGeneratorTest {
+    
+    private static final int ALLOCATION_SIZE = 50;
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private ResponseRepository responseRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Form form;
+    
+    private List<FormField> fields;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Pooled ids");
+        formDto.setFields(List.of(fieldDto("Name", 1), fieldDto("City", 2)));
+        form = formService.createForm(formDto, owner);
+        fields = formFieldRepository.findByForm(form);
+    }
+    
+    @Test
+    void insertsSubmissionsInJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        
+        responseService.persistSubmissions(submissions(200));
+        
+        // 200 responses and 400 entries; one statement per row would be 600
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(600);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+    
+    @Test
+    void reservesIdsInBlocks() {
+        long before = nextVal("responses");
+        
+        responseService.persistSubmissions(submissions(120));
+        
+        long reserved = nextVal("responses") - before;
+        assertThat(reserved % ALLOCATION_SIZE).isZero();
+        assertThat(reserved).isBetween(2L * ALLOCATION_SIZE, 3L * ALLOCATION_SIZE);
+        assertThat(responseRepository.countByForm(form)).isEqualTo(120);
+    }
+    
+    @Test
+    void concurrentAllocationHandsOutDistinctIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 5; j++) {
+                        responseService.persistSubmissions(submissions(30));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        // The primary keys would have rejected a duplicate; check nothing was lost either
+        assertThat(responseRepository.countByForm(form)).isEqualTo(600);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM response_entries e JOIN responses r ON r.id = e.response_id WHERE r.form_id = ?",
+                Long.class, form.getId())).isEqualTo(1200);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM responses", Long.class)).isLessThanOrEqualTo(nextVal("responses"));
+    }
+    
+    private List<PendingSubmission> submissions(int count) {
+        List<PendingSubmission> submissions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            submissions.add(new PendingSubmission(UUID.randomUUID().toString(), form.getId(), null,
+                    Map.of(String.valueOf(fields.get(0).getId()), "Ann " + i,
+                           String.valueOf(fields.get(1).getId()), "Oslo"),
+                    null, null, "127.0.0.1", "test"));
+        }
+        return submissions;
+    }
+    
+    private long nextVal(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = ?",
+                                           Long.class, sequence);
+    }
+    
+    private static FormFieldDto fieldDto(String label, int order) {
+        FormFieldDto dto = new FormFieldDto();
+        dto.setLabel(label);
+        dto.setFieldType("TEXT");
+        dto.setFieldOrder(order);
+        return dto;
+    }
+}
@@ -0,0 +1,154 @@
+package com.formmanagement.repository;
+
+import com.formmanagement.migration.V2__typed_response_values;
+import com.formmanagement.migration.V4__composite_indexes;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAINs the SQL behind the hot repository queries on MySQL 8 after the migrations ran and
+// fails when a query no longer uses its index or needs a filesort. The statements are the
+// ones Hibernate generates for the JPQL in ResponseRepository, FormRepository and
+// FormFieldRepository. Needs Docker; skipped without it.
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryIndexTest {
+    
+    private static final int USERS = 3;
+    private static final int FORMS_PER_USER = 200;
+    private static final int FIELDS_PER_FORM = 5;
+    private static final int RESPONSES = 20000;
+    
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+    
+    private static JdbcTemplate jdbc;
+    
+    @BeforeAll
+    static void migrateAndSeed() {
+        DataSource dataSource = new DriverManagerDataSource(MYSQL.getJdbcUrl() + "?rewriteBatchedStatements=true",
+                                                            MYSQL.getUsername(), MYSQL.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .javaMigrations(new V2__typed_response_values(), new V4__composite_indexes())
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        seed();
+        jdbc.execute("ANALYZE TABLE users, forms, form_fields, responses, response_entries");
+    }
+    
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+            Arguments.of("ResponseRepository.findFirstDtoPageByForm", "r",
+                "SELECT r.id, r.form_id, r.user_id, r.respondent_email, r.respondent_name, r.ip_address, r.submitted_at, " +
+                "r.is_duplicate FROM responses r WHERE r.form_id = 7 ORDER BY r.submitted_at DESC, r.id DESC LIMIT 51",
+                List.of("idx_responses_form_submitted")),
+            Arguments.of("ResponseRepository.findDtoPageByFormAfter", "r",
+                "SELECT r.id, r.form_id, r.user_id, r.respondent_email, r.respondent_name, r.ip_address, r.submitted_at, " +
+                "r.is_duplicate FROM responses r WHERE r.form_id = 7 AND (r.submitted_at < '2024-03-01 00:00:00' " +
+                "OR (r.submitted_at = '2024-03-01 00:00:00' AND r.id < 5000)) ORDER BY r.submitted_at DESC, r.id DESC LIMIT 51",
+                List.of("idx_responses_form_submitted")),
+            Arguments.of("ResponseRepository.findDtosByFormAndDateRange", "r",
+                "SELECT r.id, r.form_id, r.user_id, r.respondent_email, r.respondent_name, r.ip_address, r.submitted_at, " +
+                "r.is_duplicate FROM responses r WHERE r.form_id = 7 AND r.submitted_at BETWEEN '2024-02-01 00:00:00' " +
+                "AND '2024-02-08 00:00:00' ORDER BY r.submitted_at DESC",
+                List.of("idx_responses_form_submitted")),
+            Arguments.of("ResponseRepository.streamByForm", "r",
+                "SELECT r.* FROM responses r WHERE r.form_id = 7 ORDER BY r.submitted_at DESC, r.id DESC",
+                List.of("idx_responses_form_submitted")),
+            Arguments.of("ResponseRepository.countByForm", "r",
+                "SELECT COUNT(r.id) FROM responses r WHERE r.form_id = 7",
+                List.of("idx_responses_form_submitted", "idx_responses_form_email")),
+            Arguments.of("ResponseRepository.countByFormAndEmail", "r",
+                "SELECT COUNT(r.id) FROM responses r WHERE r.form_id = 7 AND r.respondent_email = 'user12@example.com'",
+                List.of("idx_responses_form_email")),
+            Arguments.of("ResponseRepository.findRespondentEmailsByForm", "r",
+                "SELECT DISTINCT r.respondent_email FROM responses r WHERE r.form_id = 7 AND r.respondent_email IS NOT NULL",
+                List.of("idx_responses_form_email")),
+            Arguments.of("FormRepository.findActiveFormsByCreator", "f",
+                "SELECT f.*, u.* FROM forms f JOIN users u ON u.id = f.creator_id WHERE f.creator_id = 102 " +
+                "AND f.is_active = TRUE ORDER BY f.created_at DESC LIMIT 20",
+                List.of("idx_forms_creator_active_created")),
+            Arguments.of("FormRepository.findPublicActiveForms", "f",
+                "SELECT f.*, u.* FROM forms f JOIN users u ON u.id = f.creator_id WHERE f.is_public = TRUE " +
+                "AND f.is_active = TRUE AND (f.expires_at IS NULL OR f.expires_at > NOW()) ORDER BY f.created_at DESC LIMIT 20",
+                List.of("idx_forms_public_active_created")),
+            Arguments.of("FormFieldRepository.findFieldsByFormOrdered", "ff",
+                "SELECT ff.* FROM form_fields ff WHERE ff.form_id = 7 ORDER BY ff.field_order",
+                List.of("idx_form_fields_form_order")),
+            Arguments.of("FormFieldRepository.findFieldsByFormIdsOrdered", "ff",
+                "SELECT ff.* FROM form_fields ff WHERE ff.form_id IN (3, 7, 11) ORDER BY ff.form_id, ff.field_order",
+                List.of("idx_form_fields_form_order")),
+            Arguments.of("ResponseSearchQuery NUMBER range", "e",
+                "SELECT e.response_id FROM response_entries e WHERE e.form_field_id = 31 " +
+                "AND e.numeric_value BETWEEN 100 AND 199",
+                List.of("idx_response_entries_field_numeric"))
+        );
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesItsIndex(String query, String table, String sql, List<String> indexes) {
+        Map<String, Object> plan = jdbc.queryForList("EXPLAIN " + sql).stream()
+                .filter(row -> table.equals(row.get("table")))
+                .findFirst()
+                .orElseThrow();
+        
+        assertThat((String) plan.get("key")).as(query + " index").isIn(indexes);
+        assertThat(String.valueOf(plan.get("Extra"))).as(query + " extra").doesNotContain("Using filesort");
+    }
+    
+    // Enough rows per form that a scan is clearly more expensive than the index. Every fourth
+    // form is private and every tenth inactive, so the listing filters are selective.
+    private static void seed() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int u = 1; u <= USERS; u++) {
+            jdbc.update("INSERT INTO users (id, username, email, password, role) VALUES (?, ?, ?, 'x', 'USER')",
+                        u + 100, "user" + u, "user" + u + "@example.com");
+        }
+        
+        List<Object[]> forms = new ArrayList<>();
+        List<Object[]> fields = new ArrayList<>();
+        int formCount = USERS * FORMS_PER_USER;
+        for (int f = 1; f <= formCount; f++) {
+            forms.add(new Object[]{f, "Form " + f, (f - 1) / FORMS_PER_USER + 101, f % 10 != 0, f % 4 != 0,
+                                   Timestamp.valueOf(start.plusDays(f))});
+            for (int i = 0; i < FIELDS_PER_FORM; i++) {
+                int fieldId = (f - 1) * FIELDS_PER_FORM + i + 1;
+                fields.add(new Object[]{fieldId, f, "Field " + i, i == 0 ? "NUMBER" : "TEXT", i});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO forms (id, title, creator_id, is_active, is_public, created_at) VALUES (?, ?, ?, ?, ?, ?)", forms);
+        jdbc.batchUpdate("INSERT INTO form_fields (id, form_id, label, field_type, field_order) VALUES (?, ?, ?, ?, ?)", fields);
+        
+        List<Object[]> responses = new ArrayList<>();
+        List<Object[]> entries = new ArrayList<>();
+        for (int r = 1; r <= RESPONSES; r++) {
+            int formId = r % formCount + 1;
+            responses.add(new Object[]{r, formId, "user" + (r % 50) + "@example.com",
+                                       Timestamp.valueOf(start.plusMinutes(r * 7L))});
+            entries.add(new Object[]{r, r, (formId - 1) * FIELDS_PER_FORM + 1, String.valueOf(r % 1000), (double) (r % 1000)});
+        }
+        jdbc.batchUpdate("INSERT INTO responses (id, form_id, respondent_email, submitted_at) VALUES (?, ?, ?, ?)", responses);
+        jdbc.batchUpdate("INSERT INTO response_entries (id, response_id, form_field_id, field_value, numeric_value) " +
+                         "VALUES (?, ?, ?, ?, ?)", entries);
+    }
+}
@@ -0,0 +1,67 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.FormField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsAccumulatorTest {
+    
+    @Test
+    void numericSummaryIgnoresNonFiniteAndNonDecimalAnswers() {
+        FormField field = field(1L, FormField.FieldType.NUMBER, null);
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        for (String value : new String[]{"4", "NaN", "Infinity", "0x1p3", "1d", "1e999", "8"}) {
+            accumulator.addValue(field, value);
+        }
+        
+        AnalyticsAccumulator.NumericStats stats = accumulator.getNumericStats().get(1L);
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getSum()).isEqualTo(12.0);
+        assertThat(stats.getMin()).isEqualTo(4.0);
+        assertThat(stats.getMax()).isEqualTo(8.0);
+    }
+    
+    @Test
+    void countsSubmissionsPerHour() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        accumulator.addSubmission(LocalDateTime.of(2024, 5, 1, 10, 5));
+        accumulator.addSubmission(LocalDateTime.of(2024, 5, 1, 10, 55));
+        accumulator.addSubmission(LocalDateTime.of(2024, 5, 1, 11, 0));
+        
+        assertThat(accumulator.getHourlyCounts())
+                .containsEntry(LocalDateTime.of(2024, 5, 1, 10, 0), 2L)
+                .containsEntry(LocalDateTime.of(2024, 5, 1, 11, 0), 1L);
+    }
+    
+    @Test
+    void checkboxAnswersMatchDeclaredOptionsContainingCommas() {
+        FormField field = field(2L, FormField.FieldType.CHECKBOX, "Red, dark\nBlue");
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        accumulator.addValue(field, "[Red, dark, Blue]");
+        
+        assertThat(accumulator.getOptionCounts().get(2L)).containsOnlyKeys("Red, dark", "Blue");
+    }
+    
+    @Test
+    void mergeAddsPartialResults() {
+        FormField field = field(3L, FormField.FieldType.RADIO, null);
+        AnalyticsAccumulator left = new AnalyticsAccumulator();
+        left.addValue(field, "Yes");
+        AnalyticsAccumulator right = new AnalyticsAccumulator();
+        right.addValue(field, "Yes");
+        right.addValue(field, "No");
+        
+        assertThat(left.merge(right).getOptionCounts().get(3L)).containsEntry("Yes", 2L).containsEntry("No", 1L);
+    }
+    
+    private static FormField field(Long id, FormField.FieldType type, String options) {
+        FormField field = new FormField();
+        field.setId(id);
+        field.setFieldType(type);
+        field.setOptions(options);
+        return field;
+    }
+}
@@ -0,0 +1,238 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.BackfillJobDto;
+import com.formmanagement.dto.FormAnalyticsDto;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsBackfillServiceTest {
+    
+    private static final String[] COLOURS = {"Red", "Green", "Blue"};
+    
+    @Autowired
+    private AnalyticsBackfillService backfillService;
+    
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private User owner;
+    
+    private Form form;
+    
+    private FormField colour;
+    
+    private FormField score;
+    
+    @BeforeEach
+    void setUp() {
+        // Many small rounds, so submissions land while the job is between rounds
+        ReflectionTestUtils.setField(backfillService, "roundSize", 40);
+        ReflectionTestUtils.setField(backfillService, "pageSize", 16);
+        
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Backfill");
+        formDto.setFields(List.of(field("Colour", "RADIO", "Red\nGreen\nBlue", 1), field("Score", "NUMBER", null, 2)));
+        form = formService.createForm(formDto, owner);
+        List<FormField> fields = formFieldRepository.findFieldsByFormOrdered(form);
+        colour = fields.get(0);
+        score = fields.get(1);
+    }
+    
+    @Test
+    void rebuildsAggregatesFromStoredResponses() throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            submit(i);
+        }
+        formAnalyticsService.flushPending();
+        formAnalyticsService.resetForForm(form.getId());
+        
+        runBackfill(false);
+        
+        assertCounts(300);
+    }
+    
+    @Test
+    void submissionsDuringTheJobAreCountedOnce() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            submit(i);
+        }
+        formAnalyticsService.flushPending();
+        
+        CompletableFuture<Void> submitter = CompletableFuture.runAsync(() -> {
+            for (int i = 300; i < 450; i++) {
+                submit(i);
+            }
+        });
+        backfillService.startBackfill(form.getId(), true);
+        submitter.get(60, TimeUnit.SECONDS);
+        awaitCompletion();
+        
+        assertThat(formAnalyticsService.hasFence(form.getId())).isFalse();
+        assertCounts(450);
+    }
+    
+    @Test
+    void openingTheFenceWaitsForSubmissionsThatMissedIt() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            submit(i);
+        }
+        formAnalyticsService.flushPending();
+        
+        CountDownLatch submitted = new CountDownLatch(1);
+        CompletableFuture<Void> inFlight = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            submit(50);
+            submitted.countDown();
+            // Still uncommitted while the job opens the fence
+            sleep(500);
+        }));
+        submitted.await(10, TimeUnit.SECONDS);
+        
+        runBackfill(true);
+        inFlight.get(10, TimeUnit.SECONDS);
+        
+        assertCounts(51);
+    }
+    
+    @Test
+    void failedJobReleasesTheFenceAndResumesFromItsCheckpoint() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            submit(i);
+        }
+        formAnalyticsService.flushPending();
+        
+        // Two rounds of 40 entries commit, then the third fails
+        ForkJoinPool pool = (ForkJoinPool) ReflectionTestUtils.getField(backfillService, "forkJoinPool");
+        AtomicInteger rounds = new AtomicInteger();
+        ReflectionTestUtils.setField(backfillService, "forkJoinPool", new ForkJoinPool(2) {
+            @Override
+            public <T> T invoke(ForkJoinTask<T> task) {
+                if (rounds.incrementAndGet() == 3) {
+                    throw new IllegalStateException("Connection lost");
+                }
+                return super.invoke(task);
+            }
+        });
+        try {
+            backfillService.startBackfill(form.getId(), true);
+            BackfillJobDto failed = awaitFinished();
+            assertThat(failed.getStatus()).isEqualTo("FAILED");
+            assertThat(failed.getErrorMessage()).isEqualTo("Connection lost");
+            assertThat(failed.getProcessedEntries()).isEqualTo(80L);
+        } finally {
+            ReflectionTestUtils.setField(backfillService, "forkJoinPool", pool);
+        }
+        
+        // Nothing is held back after the failure; later submissions are counted as usual
+        assertThat(formAnalyticsService.hasFence(form.getId())).isFalse();
+        for (int i = 300; i < 350; i++) {
+            submit(i);
+        }
+        formAnalyticsService.flushPending();
+        assertThat(formAnalyticsService.getAnalytics(form.getId(), owner).getFields().get(1).getMax()).isEqualTo(349.0);
+        
+        // Resuming scans only what the failed job had left and counts nothing twice
+        runBackfill(false);
+        
+        assertThat(backfillService.getBackfillStatus(form.getId()).getProcessedEntries()).isEqualTo(600L);
+        assertCounts(350);
+    }
+    
+    private void runBackfill(boolean restart) throws InterruptedException {
+        backfillService.startBackfill(form.getId(), restart);
+        awaitCompletion();
+    }
+    
+    private void awaitCompletion() throws InterruptedException {
+        assertThat(awaitFinished().getStatus()).isEqualTo("COMPLETED");
+        formAnalyticsService.flushPending();
+    }
+    
+    private BackfillJobDto awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        BackfillJobDto status = backfillService.getBackfillStatus(form.getId());
+        while (status.getRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            status = backfillService.getBackfillStatus(form.getId());
+        }
+        return status;
+    }
+    
+    private void assertCounts(int responses) {
+        FormAnalyticsDto analytics = formAnalyticsService.getAnalytics(form.getId(), owner);
+        
+        assertThat(analytics.getTotalSubmissions()).isEqualTo(responses);
+        long options = analytics.getFields().get(0).getOptionCounts().values().stream().mapToLong(Long::longValue).sum();
+        assertThat(options).isEqualTo(responses);
+        assertThat(analytics.getFields().get(0).getOptionCounts().get("Red")).isEqualTo((responses + 2) / 3);
+        assertThat(analytics.getFields().get(1).getValueCount()).isEqualTo(responses);
+        assertThat(analytics.getFields().get(1).getMax()).isEqualTo(responses - 1.0);
+    }
+    
+    private void submit(int seq) {
+        responseService.submitResponse(form.getId(), Map.of(
+                        String.valueOf(colour.getId()), COLOURS[seq % COLOURS.length],
+                        String.valueOf(score.getId()), String.valueOf(seq)),
+                null, null, "127.0.0.1", "test", null);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static FormFieldDto field(String label, String type, String options, int order) {
+        FormFieldDto field = new FormFieldDto();
+        field.setLabel(label);
+        field.setFieldType(type);
+        field.setOptions(options);
+        field.setFieldOrder(order);
+        return field;
+    }
+}
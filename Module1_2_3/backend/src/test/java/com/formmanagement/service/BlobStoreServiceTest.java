@@ -0,0 +1,157 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FileReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlobStoreServiceTest {
+    
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    
+    @TempDir
+    Path uploadsDir;
+    
+    private BlobStoreService blobStoreService;
+    
+    private FileReference reference;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        blobStoreService = new BlobStoreService();
+        ReflectionTestUtils.setField(blobStoreService, "uploadsDir", uploadsDir.toString());
+        blobStoreService.start();
+        reference = blobStoreService.store(new ByteArrayInputStream(CONTENT), "digits.txt", "text/plain");
+    }
+    
+    @Test
+    void storesContentUnderItsHash() throws Exception {
+        FileReference again = blobStoreService.store(new ByteArrayInputStream(CONTENT), "copy.txt", null);
+        
+        assertThat(reference.getSize()).isEqualTo(CONTENT.length);
+        assertThat(again.getSha256()).isEqualTo(reference.getSha256());
+        Path blob = uploadsDir.resolve(reference.getSha256().substring(0, 2)).resolve(reference.getSha256());
+        assertThat(Files.readAllBytes(blob)).isEqualTo(CONTENT);
+        try (var temp = Files.list(uploadsDir.resolve("tmp"))) {
+            assertThat(temp).isEmpty();
+        }
+    }
+    
+    @Test
+    void servesWholeFile() throws Exception {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest());
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getContentType()).isEqualTo("text/plain");
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + reference.getSha256() + "\"");
+    }
+    
+    @Test
+    void servesSingleRange() throws Exception {
+        MockHttpServletResponse response = serve(request("bytes=2-5"));
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+    
+    @Test
+    void servesSuffixRange() throws Exception {
+        MockHttpServletResponse response = serve(request("bytes=-3"));
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+    
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        MockHttpServletResponse response = serve(request("bytes=20-30"));
+        
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    
+    @Test
+    void ignoresMalformedOrMultipleRanges() throws Exception {
+        assertThat(serve(request("bytes=x-y")).getContentAsByteArray()).isEqualTo(CONTENT);
+        
+        MockHttpServletResponse response = serve(request("bytes=0-1,4-5"));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+    
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = request("bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        
+        MockHttpServletResponse response = serve(request);
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+    
+    @Test
+    void answersNotModifiedForMatchingEtag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + reference.getSha256() + "\"");
+        
+        MockHttpServletResponse response = serve(request);
+        
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    
+    @Test
+    void handsRangeToSendfileWhenSupported() throws Exception {
+        MockHttpServletRequest request = request("bytes=2-5");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        
+        MockHttpServletResponse response = serve(request);
+        
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    
+    @Test
+    void rejectsMissingOrInvalidBlob() {
+        FileReference missing = new FileReference("b".repeat(64), "x", null, 1L);
+        FileReference invalid = new FileReference("../secret", "x", null, 1L);
+        
+        assertThatThrownBy(() -> serve(missing)).hasMessage("File not found");
+        assertThatThrownBy(() -> serve(invalid)).hasMessage("Invalid file reference");
+    }
+    
+    private MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+    
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        blobStoreService.serve(reference, request, response);
+        return response;
+    }
+    
+    private void serve(FileReference file) throws Exception {
+        blobStoreService.serve(file, new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,153 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.model.FormField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldValidatorTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"42", "-1.5", "+3", ".5", "7.", "1e3", "2.5E-4", " 12 "})
+    void acceptsDecimalNumbers(String value) {
+        assertThat(validator(FormField.FieldType.NUMBER, null).validate(value)).isNull();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"NaN", "Infinity", "-Infinity", "0x1p3", "1d", "2f", "1e999", "1,5", "abc", "1e"})
+    void rejectsNonDecimalOrNonFiniteNumbers(String value) {
+        assertThat(validator(FormField.FieldType.NUMBER, null).validate(value)).isEqualTo("must be a number");
+    }
+    
+    @Test
+    void appliesMinAndMax() {
+        FieldValidator validator = validator(FormField.FieldType.NUMBER, "{\"min\": 1, \"max\": 10}");
+        
+        assertThat(validator.validate("5")).isNull();
+        assertThat(validator.validate("0")).isEqualTo("must be at least 1");
+        assertThat(validator.validate("11")).isEqualTo("must be at most 10");
+        assertThat(validator.validate("NaN")).isEqualTo("must be a number");
+    }
+    
+    @Test
+    void requiredFieldsNeedAValue() {
+        FormField field = field(FormField.FieldType.TEXT, null);
+        field.setIsRequired(true);
+        FieldValidator validator = FieldValidator.compile(field, objectMapper);
+        
+        assertThat(validator.validate(null)).isEqualTo("is required");
+        assertThat(validator.validate("  ")).isEqualTo("is required");
+        assertThat(validator.validate(List.of())).isEqualTo("is required");
+        assertThat(validator.validate("x")).isNull();
+    }
+    
+    @Test
+    void optionalBlankValuesSkipTheRules() {
+        assertThat(validator(FormField.FieldType.NUMBER, null).validate("")).isNull();
+    }
+    
+    @Test
+    void validatesEmailAndDate() {
+        assertThat(validator(FormField.FieldType.EMAIL, null).validate("a@example.com")).isNull();
+        assertThat(validator(FormField.FieldType.EMAIL, null).validate("a@b")).isEqualTo("must be a valid email address");
+        assertThat(validator(FormField.FieldType.DATE, null).validate("2024-02-29")).isNull();
+        assertThat(validator(FormField.FieldType.DATE, null).validate("2023-02-29"))
+                .isEqualTo("must be a date in yyyy-MM-dd format");
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"+12024-03-01", "2024-03-01T14:30", "2024-3-1"})
+    void rejectsDatesThatWouldNotBeStoredAsDates(String value) {
+        assertThat(validator(FormField.FieldType.DATE, null).validate(value))
+                .isEqualTo("must be a date in yyyy-MM-dd format");
+    }
+    
+    @Test
+    void choicesMustBeDeclaredOptions() {
+        FormField field = field(FormField.FieldType.CHECKBOX, null);
+        field.setOptions("Red\nBlue");
+        FieldValidator validator = FieldValidator.compile(field, objectMapper);
+        
+        assertThat(validator.validate(List.of("Red", "Blue"))).isNull();
+        assertThat(validator.validate(List.of("Red", "Green"))).isEqualTo("must be one of the listed options");
+    }
+    
+    @Test
+    void jsonArrayOptionsAreAccepted() {
+        FormField field = field(FormField.FieldType.RADIO, null);
+        field.setOptions("[\"Red\", \"Blue\"]");
+        
+        assertThat(FieldValidator.compile(field, objectMapper).validate("Blue")).isNull();
+    }
+    
+    @Test
+    void appliesPatternAndLengthRules() {
+        FieldValidator validator = validator(FormField.FieldType.TEXT,
+                "{\"pattern\": \"[A-Z]+\", \"message\": \"must be upper case\", \"minLength\": 2, \"maxLength\": 4}");
+        
+        assertThat(validator.validate("ABC")).isNull();
+        assertThat(validator.validate("abc")).isEqualTo("must be upper case");
+        assertThat(validator.validate("A")).isEqualTo("must be at least 2 characters");
+        assertThat(validator.validate("ABCDE")).isEqualTo("must be at most 4 characters");
+    }
+    
+    @Test
+    void rejectsInvalidRules() {
+        assertThatThrownBy(() -> validator(FormField.FieldType.TEXT, "{not json"))
+                .hasMessageContaining("not valid JSON");
+        assertThatThrownBy(() -> validator(FormField.FieldType.TEXT, "[1]"))
+                .hasMessageContaining("expected a JSON object");
+        assertThatThrownBy(() -> validator(FormField.FieldType.TEXT, "{\"pattern\": \"(\"}"))
+                .hasMessageContaining("bad pattern");
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"(a+)+", "(\\w*,?)*$", "((ab)*c)+", "(?:x+y?){2,}", "(a|b{1,3}){3}"})
+    void rejectsNestedQuantifiers(String pattern) {
+        assertThat(FieldValidator.hasNestedQuantifier(pattern)).isTrue();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"^[A-Z]{2}[0-9]{4}$", "(\\d{3}-){2}\\d{4}", "(ab)+", "(a+)?", "[(a+)]+", "\\(a+\\)+",
+                            "\\Q(a+)+\\E"})
+    void acceptsPatternsWithoutNestedQuantifiers(String pattern) {
+        assertThat(FieldValidator.hasNestedQuantifier(pattern)).isFalse();
+    }
+    
+    @Test
+    void nestedQuantifierIsRejectedWhenTheFieldIsSaved() {
+        assertThatThrownBy(() -> validator(FormField.FieldType.TEXT, "{\"pattern\": \"(a+)+b\"}"))
+                .hasMessageContaining("pattern repeats a group that itself contains a repetition");
+    }
+    
+    @Test
+    void patternIsNotRunOnOverlongAnswers() {
+        FieldValidator validator = validator(FormField.FieldType.TEXT, "{\"pattern\": \"a*\"}");
+        
+        assertThat(validator.validate("a".repeat(FieldValidator.MAX_PATTERN_INPUT_LENGTH))).isNull();
+        assertThat(validator.validate("a".repeat(FieldValidator.MAX_PATTERN_INPUT_LENGTH + 1)))
+                .isEqualTo("must be at most " + FieldValidator.MAX_PATTERN_INPUT_LENGTH + " characters");
+    }
+    
+    private FieldValidator validator(FormField.FieldType type, String rules) {
+        return FieldValidator.compile(field(type, rules), objectMapper);
+    }
+    
+    private static FormField field(FormField.FieldType type, String rules) {
+        FormField field = new FormField();
+        field.setId(1L);
+        field.setLabel("Field");
+        field.setFieldType(type);
+        field.setIsRequired(false);
+        field.setValidationRules(rules);
+        return field;
+    }
+}
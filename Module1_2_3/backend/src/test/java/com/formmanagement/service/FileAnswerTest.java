@@ -0,0 +1,137 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.dto.FileReference;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.Response;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FileAnswerTest {
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FileAttachmentService fileAttachmentService;
+    
+    @Autowired
+    private BlobStoreService blobStoreService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User owner;
+    
+    private Form form;
+    
+    private FormField field;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormFieldDto fieldDto = new FormFieldDto();
+        fieldDto.setLabel("CV");
+        fieldDto.setFieldType("FILE");
+        fieldDto.setFieldOrder(1);
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Applications");
+        formDto.setFields(List.of(fieldDto));
+        
+        form = formService.createForm(formDto, owner);
+        field = formFieldRepository.findByForm(form).get(0);
+    }
+    
+    @Test
+    void storesUploadedReference() {
+        Map<String, Object> data = new HashMap<>(fileAttachmentService.storeUploads(form.getId(),
+                upload(String.valueOf(field.getId()), "cv.pdf", "application/pdf"), owner));
+        
+        Response response = submit(data);
+        
+        FileReference reference = fileAttachmentService.getAttachment(response.getId(), field.getId(), owner);
+        assertThat(reference.getFilename()).isEqualTo("cv.pdf");
+        assertThat(reference.getContentType()).isEqualTo("application/pdf");
+        assertThat(reference.getSize()).isEqualTo(7L);
+    }
+    
+    @Test
+    void dropsMalformedContentType() {
+        Map<String, Object> references = fileAttachmentService.storeUploads(form.getId(),
+                upload(String.valueOf(field.getId()), "cv.pdf", "pdf"), owner);
+        
+        FileReference reference = (FileReference) references.get(String.valueOf(field.getId()));
+        assertThat(reference.getContentType()).isNull();
+    }
+    
+    @Test
+    void rejectsReferenceSentByClient() throws Exception {
+        // Points at a blob that exists, but was not uploaded with this submission
+        FileReference stored = blobStoreService.store(new ByteArrayInputStream(new byte[] {1, 2, 3}),
+                "other.bin", null);
+        String inline = objectMapper.writeValueAsString(
+                new FileReference(stored.getSha256(), "invoice.html", "text/html", 1L));
+        
+        assertThatThrownBy(() -> submit(new HashMap<>(Map.of(String.valueOf(field.getId()), inline))))
+                .hasMessage("Field 'CV' only accepts a file uploaded with the submission");
+        assertThatThrownBy(() -> submit(new HashMap<>(Map.of("0" + field.getId(), inline))))
+                .hasMessage("Field 'CV' only accepts a file uploaded with the submission");
+        assertThatThrownBy(() -> responseService.validateSubmission(form.getId(),
+                new HashMap<>(Map.of(String.valueOf(field.getId()), inline)), owner))
+                .hasMessage("Field 'CV' only accepts a file uploaded with the submission");
+    }
+    
+    @Test
+    void treatsBlankAnswerAsUnanswered() {
+        Response response = submit(new HashMap<>(Map.of(String.valueOf(field.getId()), "")));
+        
+        assertThat(response.getId()).isNotNull();
+    }
+    
+    private Response submit(Map<String, Object> data) {
+        return responseService.submitResponse(form.getId(), data, null, null, "127.0.0.1", "test", owner);
+    }
+    
+    private MultiValueMap<String, MultipartFile> upload(String partName, String filename, String contentType) {
+        MultiValueMap<String, MultipartFile> files = new LinkedMultiValueMap<>();
+        files.add(partName, new MockMultipartFile(partName, filename, contentType,
+                "content".getBytes(StandardCharsets.US_ASCII)));
+        return files;
+    }
+}
@@ -0,0 +1,127 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormAnalyticsDto;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FormAnalyticsServiceTest {
+    
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private User owner;
+    
+    private Form form;
+    
+    private Map<String, FormField> fields;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Survey");
+        formDto.setFields(List.of(field("Colour", "RADIO", "Red\nBlue", 1), field("Age", "NUMBER", null, 2)));
+        form = formService.createForm(formDto, owner);
+        fields = formFieldRepository.findByForm(form).stream()
+                .collect(Collectors.toMap(FormField::getLabel, field -> field));
+        
+        formAnalyticsService.flushPending();
+    }
+    
+    @Test
+    void submissionsAreWrittenOnFlush() {
+        submit("Red", "20");
+        submit("Blue", "30");
+        submit("Red", "40");
+        
+        assertThat(formAnalyticsService.getAnalytics(form.getId(), owner).getTotalSubmissions()).isZero();
+        
+        formAnalyticsService.flushPending();
+        FormAnalyticsDto analytics = formAnalyticsService.getAnalytics(form.getId(), owner);
+        
+        assertThat(analytics.getTotalSubmissions()).isEqualTo(3);
+        assertThat(analytics.getFields().get(0).getOptionCounts()).containsEntry("Red", 2L).containsEntry("Blue", 1L);
+        assertThat(analytics.getFields().get(1).getValueCount()).isEqualTo(3);
+        assertThat(analytics.getFields().get(1).getMin()).isEqualTo(20.0);
+        assertThat(analytics.getFields().get(1).getMax()).isEqualTo(40.0);
+        assertThat(analytics.getFields().get(1).getMean()).isEqualTo(30.0);
+    }
+    
+    @Test
+    void rolledBackSubmissionsAreNotCounted() {
+        transactionTemplate.executeWithoutResult(status -> {
+            submit("Red", "20");
+            status.setRollbackOnly();
+        });
+        submit("Blue", "30");
+        
+        formAnalyticsService.flushPending();
+        FormAnalyticsDto analytics = formAnalyticsService.getAnalytics(form.getId(), owner);
+        
+        assertThat(analytics.getTotalSubmissions()).isEqualTo(1);
+        assertThat(analytics.getFields().get(0).getOptionCounts()).containsOnlyKeys("Blue");
+    }
+    
+    @Test
+    void resetDropsBufferedDeltas() {
+        submit("Red", "20");
+        
+        formAnalyticsService.resetForForm(form.getId());
+        formAnalyticsService.flushPending();
+        
+        assertThat(formAnalyticsService.getAnalytics(form.getId(), owner).getTotalSubmissions()).isZero();
+    }
+    
+    private void submit(String colour, String age) {
+        responseService.submitResponse(form.getId(), Map.of(
+                        String.valueOf(fields.get("Colour").getId()), colour,
+                        String.valueOf(fields.get("Age").getId()), age),
+                null, null, "127.0.0.1", "test", null);
+    }
+    
+    private static FormFieldDto field(String label, String type, String options, int order) {
+        FormFieldDto field = new FormFieldDto();
+        field.setLabel(label);
+        field.setFieldType(type);
+        field.setOptions(options);
+        field.setFieldOrder(order);
+        return field;
+    }
+}
@@ -0,0 +1,122 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The listings load the fields of a whole page with one IN query, so the number of
+// statements must not grow with the number of forms on the page
+@SpringBootTest
+@ActiveProfiles("test")
+class FormServiceQueryCountTest {
+    
+    private static final int FIELDS_PER_FORM = 4;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+    
+    @Test
+    void creatorListingUsesConstantQueries() {
+        User few = createUserWithForms(2);
+        User many = createUserWithForms(40);
+        
+        long fewCount = countStatements(() -> formService.getFormsByCreator(few, PageRequest.of(0, 50)), 2);
+        long manyCount = countStatements(() -> formService.getFormsByCreator(many, PageRequest.of(0, 50)), 40);
+        
+        assertThat(manyCount).isEqualTo(fewCount);
+    }
+    
+    @Test
+    void unpagedCreatorListingUsesConstantQueries() {
+        User few = createUserWithForms(2);
+        User many = createUserWithForms(40);
+        
+        statistics.clear();
+        assertThat(formService.getFormsByCreator(few)).hasSize(2);
+        long fewCount = statistics.getPrepareStatementCount();
+        
+        statistics.clear();
+        List<FormDto> forms = formService.getFormsByCreator(many);
+        long manyCount = statistics.getPrepareStatementCount();
+        
+        assertThat(forms).hasSize(40).allSatisfy(dto -> assertThat(dto.getFields()).hasSize(FIELDS_PER_FORM));
+        assertThat(manyCount).isEqualTo(fewCount);
+    }
+    
+    @Test
+    void publicListingUsesConstantQueries() {
+        createUserWithForms(3);
+        long smallPage = countStatements(() -> formService.getPublicForms(PageRequest.of(0, 3)), 3);
+        
+        createUserWithForms(40);
+        long largePage = countStatements(() -> formService.getPublicForms(PageRequest.of(0, 40)), 40);
+        
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+    
+    private long countStatements(Supplier<Page<FormDto>> listing, int expectedForms) {
+        statistics.clear();
+        Page<FormDto> page = listing.get();
+        long count = statistics.getPrepareStatementCount();
+        
+        assertThat(page.getContent()).hasSize(expectedForms)
+                .allSatisfy(dto -> assertThat(dto.getFields()).hasSize(FIELDS_PER_FORM));
+        return count;
+    }
+    
+    private User createUserWithForms(int formCount) {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        for (int i = 0; i < formCount; i++) {
+            FormDto form = new FormDto();
+            form.setTitle("Form " + i);
+            form.setIsPublic(true);
+            
+            List<FormFieldDto> fields = new ArrayList<>();
+            for (int f = 0; f < FIELDS_PER_FORM; f++) {
+                FormFieldDto field = new FormFieldDto();
+                field.setLabel("Field " + f);
+                field.setFieldType("TEXT");
+                field.setFieldOrder(f);
+                fields.add(field);
+            }
+            form.setFields(fields);
+            
+            formService.createForm(form, user);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,120 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.FormField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FullTextIndexServiceTest {
+    
+    @TempDir
+    Path indexDir;
+    
+    private FullTextIndexService service;
+    
+    private final CountDownLatch indexerBlocked = new CountDownLatch(1);
+    
+    private final CountDownLatch releaseIndexer = new CountDownLatch(1);
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        // The first rebuild holds the single indexer thread until the test releases it
+        doAnswer(invocation -> {
+            indexerBlocked.countDown();
+            releaseIndexer.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenReturn(List.of(10L));
+        
+        service = new FullTextIndexService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "indexDir", indexDir.toString());
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        service.start();
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        releaseIndexer.countDown();
+        service.stop();
+    }
+    
+    @Test
+    void rejectedRebuildIsReportedToTheCaller() throws InterruptedException {
+        fillQueue();
+        
+        assertThatThrownBy(() -> service.rebuildForm(3L, List.of(textField(30L))))
+                .hasMessageContaining("indexer is busy");
+    }
+    
+    @Test
+    void rejectedUpdateMarksTheFormDirtyUntilItIsRebuilt() throws InterruptedException {
+        fillQueue();
+        
+        service.indexAfterCommit(3L, 300L, Map.of(textField(30L), "lost update"));
+        assertThat(service.isDirty(3L)).isTrue();
+        
+        releaseIndexer.countDown();
+        waitForEmptyQueue();
+        ReflectionTestUtils.invokeMethod(service, "rebuildDirtyForms");
+        
+        assertThat(service.isDirty(3L)).isFalse();
+    }
+    
+    @Test
+    void explicitRebuildClearsTheDirtyMark() throws InterruptedException {
+        fillQueue();
+        service.indexAfterCommit(3L, 300L, Map.of(textField(30L), "lost update"));
+        
+        releaseIndexer.countDown();
+        waitForEmptyQueue();
+        service.rebuildForm(3L, List.of(textField(30L)));
+        
+        assertThat(service.isDirty(3L)).isFalse();
+    }
+    
+    // One rebuild running on the indexer thread and one waiting in the queue
+    private void fillQueue() throws InterruptedException {
+        service.rebuildForm(1L, List.of(textField(10L)));
+        assertThat(indexerBlocked.await(10, TimeUnit.SECONDS)).isTrue();
+        service.rebuildForm(2L, List.of(textField(20L)));
+    }
+    
+    private void waitForEmptyQueue() throws InterruptedException {
+        ThreadPoolExecutor indexer = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "indexer");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!indexer.getQueue().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private static FormField textField(Long id) {
+        FormField field = new FormField();
+        field.setId(id);
+        field.setFieldType(FormField.FieldType.TEXT);
+        return field;
+    }
+}
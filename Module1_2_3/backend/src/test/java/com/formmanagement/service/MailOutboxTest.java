@@ -0,0 +1,254 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.OutboxMail;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.OutboxMailRepository;
+import com.formmanagement.repository.UserRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Drives the outbox against H2 and a GreenMail SMTP server; dispatch() is called directly
+// and next_attempt_at is moved back to stand in for the passing of time
+@SpringBootTest(properties = {
+        "mail.outbox.enabled=true",
+        "mail.outbox.batch-size=3",
+        "mail.outbox.max-attempts=3",
+        "mail.outbox.backoff-ms=60000",
+        "mail.outbox.max-backoff-ms=90000",
+        "mail.outbox.poll-interval-ms=3600000",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+@ActiveProfiles("test")
+class MailOutboxTest {
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+    
+    @Autowired
+    private MailOutboxDispatcher dispatcher;
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @SpyBean
+    private JavaMailSender mailSender;
+    
+    private Form form;
+    
+    private FormField field;
+    
+    @BeforeEach
+    void setUp() {
+        outboxMailRepository.deleteAll();
+        
+        FormFieldDto fieldDto = new FormFieldDto();
+        fieldDto.setLabel("Name");
+        fieldDto.setFieldType("TEXT");
+        fieldDto.setFieldOrder(1);
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Survey\r\nBcc: everyone@example.com");
+        formDto.setFields(List.of(fieldDto));
+        
+        form = formService.createForm(formDto, newUser());
+        field = formFieldRepository.findByForm(form).get(0);
+    }
+    
+    @Test
+    void mailsOnlySignedInRespondents() {
+        User respondent = newUser();
+        
+        submit(null, "victim@example.com");
+        submit(respondent, "someone-else@example.com");
+        
+        List<OutboxMail> mails = outboxMailRepository.findAll();
+        assertThat(mails).hasSize(1);
+        assertThat(mails.get(0).getRecipient()).isEqualTo(respondent.getEmail());
+        assertThat(mails.get(0).getSubject()).isEqualTo("We received your response to Survey Bcc: everyone@example.com");
+    }
+    
+    @Test
+    void sendsDueMailsInBatches() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            submit(newUser(), null);
+        }
+        
+        dispatcher.dispatch();
+        
+        // batch-size 3: one SMTP session each for 3, 3 and 1 mails
+        verify(mailSender, times(3)).send(any(MimeMessage[].class));
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+        assertThat(outboxMailRepository.findAll())
+                .allSatisfy(mail -> {
+                    assertThat(mail.getStatus()).isEqualTo(OutboxMail.Status.SENT);
+                    assertThat(mail.getAttempts()).isEqualTo(1);
+                    assertThat(mail.getSentAt()).isNotNull();
+                });
+    }
+    
+    @Test
+    void stopsClaimingWhenRunTimeIsUsedUp() {
+        for (int i = 0; i < 7; i++) {
+            submit(newUser(), null);
+        }
+        
+        ReflectionTestUtils.setField(dispatcher, "maxRunMs", 0L);
+        try {
+            dispatcher.dispatch();
+        } finally {
+            ReflectionTestUtils.setField(dispatcher, "maxRunMs", 60000L);
+        }
+        
+        // One full batch, the rest waits for the next poll
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(outboxMailRepository.findAll())
+                .filteredOn(mail -> mail.getStatus() == OutboxMail.Status.PENDING)
+                .hasSize(4);
+        
+        dispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+    }
+    
+    @Test
+    void retriesFailedBatchAfterBackoff() {
+        submit(newUser(), null);
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+        
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+        
+        OutboxMail mail = onlyMail();
+        assertThat(mail.getStatus()).isEqualTo(OutboxMail.Status.PENDING);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getLastError()).isEqualTo("Connection refused");
+        assertThat(mail.getNextAttemptAt()).isBetween(before.plusSeconds(59), LocalDateTime.now().plusSeconds(61));
+        
+        // Not due yet, so the next round does not touch it
+        dispatcher.dispatch();
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        
+        doCallRealMethod().when(mailSender).send(any(MimeMessage[].class));
+        makeDue();
+        dispatcher.dispatch();
+        
+        mail = onlyMail();
+        assertThat(mail.getStatus()).isEqualTo(OutboxMail.Status.SENT);
+        assertThat(mail.getAttempts()).isEqualTo(2);
+        assertThat(mail.getLastError()).isNull();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+    
+    @Test
+    void backsOffExponentiallyAndGivesUpAfterMaxAttempts() {
+        submit(newUser(), null);
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+        
+        dispatcher.dispatch();
+        makeDue();
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+        
+        // 60s doubled to 120s, capped at max-backoff-ms
+        OutboxMail mail = onlyMail();
+        assertThat(mail.getAttempts()).isEqualTo(2);
+        assertThat(mail.getNextAttemptAt()).isBetween(before.plusSeconds(89), LocalDateTime.now().plusSeconds(91));
+        
+        makeDue();
+        dispatcher.dispatch();
+        mail = onlyMail();
+        assertThat(mail.getStatus()).isEqualTo(OutboxMail.Status.FAILED);
+        assertThat(mail.getAttempts()).isEqualTo(3);
+        
+        makeDue();
+        dispatcher.dispatch();
+        verify(mailSender, times(3)).send(any(MimeMessage[].class));
+    }
+    
+    @Test
+    void redeliversClaimedMailWhenLeaseExpires() {
+        submit(newUser(), null);
+        
+        // A dispatcher claims the mail and dies before sending it
+        List<OutboxMail> claimed = ReflectionTestUtils.invokeMethod(dispatcher, "claim");
+        assertThat(claimed).hasSize(1);
+        assertThat(onlyMail().getNextAttemptAt()).isAfter(LocalDateTime.now().plusMinutes(4));
+        
+        dispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        
+        makeDue();
+        dispatcher.dispatch();
+        
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(onlyMail().getStatus()).isEqualTo(OutboxMail.Status.SENT);
+    }
+    
+    private User newUser() {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+    }
+    
+    private void submit(User user, String respondentEmail) {
+        responseService.submitResponse(form.getId(), Map.of(String.valueOf(field.getId()), "Ann"),
+                                       respondentEmail, null, "127.0.0.1", "test", user);
+    }
+    
+    private OutboxMail onlyMail() {
+        List<OutboxMail> mails = outboxMailRepository.findAll();
+        assertThat(mails).hasSize(1);
+        return mails.get(0);
+    }
+    
+    private void makeDue() {
+        jdbcTemplate.update("UPDATE mail_outbox SET next_attempt_at = ?", LocalDateTime.now().minusSeconds(1));
+    }
+}
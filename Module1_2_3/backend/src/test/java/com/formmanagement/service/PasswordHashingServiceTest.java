@@ -0,0 +1,138 @@
+package com.formmanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    private PasswordHashingService service;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.stop();
+        }
+    }
+    
+    @Test
+    void encodesWithAlgorithmPrefix() {
+        service = start("bcrypt", 1, 4, 5000);
+        
+        String hash = service.encode("correct horse");
+        
+        assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        assertThat(service.matches("correct horse", hash)).isTrue();
+        assertThat(service.matches("wrong horse", hash)).isFalse();
+        assertThat(service.upgradeEncoding(hash)).isFalse();
+    }
+    
+    @Test
+    void readsUnprefixedHashesAsBcryptAndUpgradesThem() {
+        service = start("bcrypt", 1, 4, 5000);
+        String legacy = new BCryptPasswordEncoder(4).encode("correct horse");
+        
+        assertThat(service.matches("correct horse", legacy)).isTrue();
+        assertThat(service.upgradeEncoding(legacy)).isTrue();
+    }
+    
+    @Test
+    void argon2ReplacesBcryptForNewHashes() {
+        service = start("argon2", 1, 4, 5000);
+        String bcrypt = new BCryptPasswordEncoder(4).encode("correct horse");
+        
+        String hash = service.encode("correct horse");
+        
+        assertThat(hash).startsWith("{argon2}");
+        assertThat(service.matches("correct horse", hash)).isTrue();
+        assertThat(service.matches("correct horse", "{bcrypt}" + bcrypt)).isTrue();
+        assertThat(service.upgradeEncoding("{bcrypt}" + bcrypt)).isTrue();
+    }
+    
+    @Test
+    void rejectsUnknownAlgorithm() {
+        assertThatThrownBy(() -> start("md5", 1, 4, 5000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("password.hashing.algorithm must be bcrypt or argon2, not md5");
+    }
+    
+    @Test
+    void refusesWorkWhenQueueIsFull() throws Exception {
+        service = start("bcrypt", 1, 1, 5000);
+        occupyThread();
+        executor().execute(this::awaitRelease);
+        
+        assertThatThrownBy(() -> service.encode("correct horse")).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.queue.depth").gauge().value()).isEqualTo(1);
+    }
+    
+    @Test
+    void givesUpAfterMaxWait() throws Exception {
+        service = start("bcrypt", 1, 4, 50);
+        occupyThread();
+        
+        assertThatThrownBy(() -> service.matches("correct horse", "{bcrypt}x"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        
+        // The abandoned hash is cancelled rather than left in the queue
+        assertThat(executor().getQueue()).isEmpty();
+    }
+    
+    @Test
+    void postponesUpgradeWhileHashesAreQueued() throws Exception {
+        service = start("bcrypt", 1, 4, 5000);
+        String legacy = new BCryptPasswordEncoder(4).encode("correct horse");
+        occupyThread();
+        executor().execute(this::awaitRelease);
+        
+        assertThat(service.upgradeEncoding(legacy)).isFalse();
+    }
+    
+    private PasswordHashingService start(String algorithm, int threads, int queueCapacity, long maxWaitMs) {
+        PasswordHashingService hashing = new PasswordHashingService();
+        ReflectionTestUtils.setField(hashing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(hashing, "bcryptStrength", 4);
+        ReflectionTestUtils.setField(hashing, "threads", threads);
+        ReflectionTestUtils.setField(hashing, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(hashing, "maxWaitMs", maxWaitMs);
+        ReflectionTestUtils.setField(hashing, "meterRegistry", meterRegistry);
+        hashing.start();
+        return hashing;
+    }
+    
+    // Blocks the only hashing thread until the test ends
+    private void occupyThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor().execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await();
+    }
+    
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private ThreadPoolExecutor executor() {
+        return (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+    }
+}
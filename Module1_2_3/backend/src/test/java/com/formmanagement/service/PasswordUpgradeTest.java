@@ -0,0 +1,51 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.LoginRequest;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordUpgradeTest {
+    
+    @Autowired
+    private AuthService authService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void loginRehashesLegacyHash() {
+        String name = "legacy-" + UUID.randomUUID().toString().substring(0, 8);
+        String legacy = new BCryptPasswordEncoder(4).encode("correct horse");
+        User user = userRepository.save(new User(name, name + "@example.com", legacy, User.Role.USER));
+        
+        assertThat(authService.authenticateUser(new LoginRequest(name, "correct horse")).getToken()).isNotBlank();
+        
+        String upgraded = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(upgraded).startsWith("{bcrypt}").isNotEqualTo(legacy);
+        assertThat(authService.authenticateUser(new LoginRequest(name, "correct horse")).getToken()).isNotBlank();
+    }
+    
+    @Test
+    void wrongPasswordLeavesHashAlone() {
+        String name = "legacy-" + UUID.randomUUID().toString().substring(0, 8);
+        String legacy = new BCryptPasswordEncoder(4).encode("correct horse");
+        User user = userRepository.save(new User(name, name + "@example.com", legacy, User.Role.USER));
+        
+        assertThatThrownBy(() -> authService.authenticateUser(new LoginRequest(name, "wrong horse")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword()).isEqualTo(legacy);
+    }
+}
@@ -0,0 +1,90 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PublicFormCacheTest {
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private User owner;
+    
+    private Long formId;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormFieldDto field = new FormFieldDto();
+        field.setLabel("Name");
+        field.setFieldType("TEXT");
+        field.setFieldOrder(1);
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Original");
+        formDto.setFields(List.of(field));
+        Form form = formService.createForm(formDto, owner);
+        formId = form.getId();
+    }
+    
+    @Test
+    void callersCannotChangeTheCachedDefinition() {
+        FormDto first = formService.getPublicFormById(formId).orElseThrow();
+        first.setTitle("Changed");
+        first.getFields().get(0).setLabel("Changed");
+        first.getFields().clear();
+        
+        FormDto second = formService.getPublicFormById(formId).orElseThrow();
+        
+        assertThat(second.getTitle()).isEqualTo("Original");
+        assertThat(second.getFields()).extracting(FormFieldDto::getLabel).containsExactly("Name");
+    }
+    
+    @Test
+    void updateEvictsTheEntryAfterCommit() {
+        assertThat(formService.getPublicFormById(formId)).get().extracting(FormDto::getTitle).isEqualTo("Original");
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            FormDto update = formService.getFormById(formId).orElseThrow();
+            update.setTitle("Updated");
+            formService.updateForm(formId, update, owner);
+            
+            // Until the commit, readers keep getting the cached definition
+            assertThat(formService.getPublicFormById(formId)).get().extracting(FormDto::getTitle).isEqualTo("Original");
+        });
+        
+        assertThat(formService.getPublicFormById(formId)).get().extracting(FormDto::getTitle).isEqualTo("Updated");
+    }
+    
+    @Test
+    void deleteEvictsTheEntry() {
+        assertThat(formService.getPublicFormById(formId)).isPresent();
+        
+        formService.deleteForm(formId, owner);
+        
+        assertThat(formService.getPublicFormById(formId)).isEmpty();
+    }
+}
@@ -0,0 +1,190 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Exports a form from H2 and reads the CSV text or the workbook back
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseExportTest {
+    
+    @Autowired
+    private ResponseExportService exportService;
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    private User owner;
+    
+    private Form form;
+    
+    private Map<String, FormField> fields;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        // Listed out of order; columns follow fieldOrder
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Export");
+        formDto.setFields(List.of(fieldDto("Comment", "TEXT", 2), fieldDto("Age", "NUMBER", 1)));
+        form = formService.createForm(formDto, owner);
+        fields = formFieldRepository.findByForm(form).stream()
+                .collect(Collectors.toMap(FormField::getLabel, Function.identity()));
+    }
+    
+    @Test
+    void writesOneColumnPerFieldInFieldOrder() throws IOException {
+        persist(List.of(submission("Ann", Map.of("Age", "30", "Comment", "fine")),
+                        submission("Bob", Map.of("Age", "41"))));
+        
+        List<String> lines = csvLines();
+        
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("Response ID,Submitted At,Respondent Email,Respondent Name,Age,Comment");
+        assertThat(lines.subList(1, 3))
+                .anySatisfy(line -> assertThat(line).endsWith(",,Ann,30,fine"))
+                .anySatisfy(line -> assertThat(line).endsWith(",,Bob,41,"));
+    }
+    
+    @Test
+    void quotesCsvDelimitersAndNeutralizesFormulas() throws IOException {
+        persist(List.of(submission("a", Map.of("Comment", "red, \"dark\"\nred")),
+                        submission("b", Map.of("Comment", "=HYPERLINK(\"http://example.com\")")),
+                        submission("c", Map.of("Comment", "@SUM(A1)")),
+                        submission("-d", Map.of("Comment", "+1"))));
+        
+        String csv = csv();
+        
+        assertThat(csv).contains(",a,,\"red, \"\"dark\"\"\nred\"\r\n");
+        assertThat(csv).contains(",b,,\"'=HYPERLINK(\"\"http://example.com\"\")\"\r\n");
+        assertThat(csv).contains(",c,,'@SUM(A1)\r\n");
+        assertThat(csv).contains(",'-d,,'+1\r\n");
+    }
+    
+    @Test
+    void neutralizesFormulasInXlsxCells() throws IOException {
+        persist(List.of(submission("a", Map.of("Comment", "=1+1"))));
+        
+        try (XSSFWorkbook workbook = xlsx()) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getRow(1).getCell(5).getStringCellValue()).isEqualTo("'=1+1");
+        }
+    }
+    
+    @Test
+    void exportsEveryResponseAcrossBatches() throws IOException {
+        List<PendingSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            submissions.add(submission("r" + i, Map.of("Age", String.valueOf(i))));
+        }
+        persist(submissions);
+        
+        // Reads 500 responses per batch
+        List<String> rows = csvLines().subList(1, 1101);
+        
+        assertThat(rows).extracting(line -> line.substring(0, line.indexOf(','))).doesNotHaveDuplicates();
+        assertThat(rows).extracting(line -> line.split(",")[3])
+                .containsExactlyInAnyOrderElementsOf(submissions.stream()
+                        .map(PendingSubmission::getRespondentName)
+                        .toList());
+    }
+    
+    @Test
+    void continuesOnNewSheetAtRowLimit() throws IOException {
+        List<PendingSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            submissions.add(submission("r" + i, Map.of("Age", String.valueOf(i))));
+        }
+        persist(submissions);
+        
+        // Header plus three responses per sheet
+        ResponseExportService target = AopTestUtils.getTargetObject(exportService);
+        ReflectionTestUtils.setField(target, "maxRowsPerSheet", 4);
+        try (XSSFWorkbook workbook = xlsx()) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(3);
+            assertThat(workbook.getSheetName(1)).isEqualTo("Responses 2");
+            for (int i = 0; i < 3; i++) {
+                Sheet sheet = workbook.getSheetAt(i);
+                assertThat(sheet.getRow(0).getCell(4).getStringCellValue()).isEqualTo("Age");
+                assertThat(sheet.getLastRowNum()).isEqualTo(i < 2 ? 3 : 1);
+            }
+        } finally {
+            ReflectionTestUtils.setField(target, "maxRowsPerSheet", 1048576);
+        }
+    }
+    
+    private String csv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCsv(form.getId(), owner, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private List<String> csvLines() throws IOException {
+        return List.of(csv().split("\r\n"));
+    }
+    
+    private XSSFWorkbook xlsx() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportXlsx(form.getId(), owner, out);
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+    
+    private PendingSubmission submission(String name, Map<String, Object> answers) {
+        Map<String, Object> data = new HashMap<>();
+        answers.forEach((label, value) -> data.put(String.valueOf(fields.get(label).getId()), value));
+        return new PendingSubmission(UUID.randomUUID().toString(), form.getId(), null, data, null, name,
+                                     "127.0.0.1", "test");
+    }
+    
+    private void persist(List<PendingSubmission> submissions) {
+        responseService.persistSubmissions(submissions);
+    }
+    
+    private static FormFieldDto fieldDto(String label, String type, int order) {
+        FormFieldDto dto = new FormFieldDto();
+        dto.setLabel(label);
+        dto.setFieldType(type);
+        dto.setFieldOrder(order);
+        return dto;
+    }
+}
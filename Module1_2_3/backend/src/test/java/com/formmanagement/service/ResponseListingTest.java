@@ -0,0 +1,177 @@
+package com.formmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.dto.CursorPage;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.dto.ResponseEntryDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Listings are read as DTO projections, with the entries of all listed responses loaded by
+// one IN query, so neither the statements nor the loaded entities grow with the responses.
+// Cursor pages and the NDJSON stream attach entries the same way.
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseListingTest {
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User owner;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+    }
+    
+    @Test
+    void listsResponsesWithTheirEntries() {
+        Form form = createForm();
+        persist(form, 3);
+        
+        List<ResponseDto> responses = responseService.getResponsesByForm(form.getId(), owner);
+        
+        assertThat(responses).hasSize(3).allSatisfy(response -> {
+            assertThat(response.getFormId()).isEqualTo(form.getId());
+            assertThat(response.getEntries()).extracting(ResponseEntryDto::getResponseId)
+                    .containsOnly(response.getId());
+            assertThat(response.getEntries()).extracting(ResponseEntryDto::getFieldValue)
+                    .containsExactlyInAnyOrder(response.getRespondentName(), "Oslo");
+        });
+    }
+    
+    @Test
+    void listingUsesConstantQueries() {
+        Form few = createForm();
+        persist(few, 2);
+        Form many = createForm();
+        persist(many, 40);
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        
+        statistics.clear();
+        responseService.getResponsesByForm(few.getId(), owner);
+        long fewStatements = statistics.getPrepareStatementCount();
+        long fewLoads = statistics.getEntityLoadCount();
+        
+        statistics.clear();
+        List<ResponseDto> responses = responseService.getResponsesByForm(many.getId(), owner);
+        
+        assertThat(responses).hasSize(40).allSatisfy(response -> assertThat(response.getEntries()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(fewStatements);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(fewLoads);
+    }
+    
+    @Test
+    void cursorPagesCoverEveryResponseOnce() {
+        Form form = createForm();
+        persist(form, 7);
+        
+        // Persisted in one batch, so most rows share submittedAt and the id breaks the tie
+        List<ResponseDto> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ResponseDto> page = responseService.getResponsePageByForm(form.getId(), cursor, 3, owner);
+            page.getItems().forEach(response -> assertThat(response.getEntries()).hasSize(2));
+            seen.addAll(page.getItems());
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertThat(pageSizes).containsExactly(3, 3, 1);
+        assertThat(seen).extracting(ResponseDto::getId)
+                .containsExactlyElementsOf(responseService.getResponsesByForm(form.getId(), owner).stream()
+                        .sorted(Comparator.comparing(ResponseDto::getSubmittedAt).thenComparing(ResponseDto::getId).reversed())
+                        .map(ResponseDto::getId)
+                        .toList());
+    }
+    
+    @Test
+    void streamWritesOneJsonLinePerResponse() throws IOException {
+        Form form = createForm();
+        persist(form, 5);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        responseService.streamResponsesByForm(form.getId(), owner, out);
+        
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(5);
+        for (String line : lines) {
+            ResponseDto response = objectMapper.readValue(line, ResponseDto.class);
+            assertThat(response.getFormId()).isEqualTo(form.getId());
+            assertThat(response.getEntries()).extracting(ResponseEntryDto::getFieldValue)
+                    .containsExactlyInAnyOrder(response.getRespondentName(), "Oslo");
+        }
+    }
+    
+    private void persist(Form form, int count) {
+        List<FormField> fields = formFieldRepository.findByForm(form);
+        List<PendingSubmission> submissions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "Ann " + i;
+            submissions.add(new PendingSubmission(UUID.randomUUID().toString(), form.getId(), null,
+                    Map.of(String.valueOf(fields.get(0).getId()), name,
+                           String.valueOf(fields.get(1).getId()), "Oslo"),
+                    null, name, "127.0.0.1", "test"));
+        }
+        responseService.persistSubmissions(submissions);
+    }
+    
+    private Form createForm() {
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Listing");
+        formDto.setFields(List.of(fieldDto("Name", 1), fieldDto("City", 2)));
+        return formService.createForm(formDto, owner);
+    }
+    
+    private static FormFieldDto fieldDto(String label, int order) {
+        FormFieldDto dto = new FormFieldDto();
+        dto.setLabel(label);
+        dto.setFieldType("TEXT");
+        dto.setFieldOrder(order);
+        return dto;
+    }
+}
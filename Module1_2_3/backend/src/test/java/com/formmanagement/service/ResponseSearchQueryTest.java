@@ -0,0 +1,204 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.ResponseCursor;
+import com.formmanagement.dto.ResponseSearchFilter;
+import com.formmanagement.dto.SearchCondition;
+import com.formmanagement.model.FormField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseSearchQueryTest {
+    
+    private final Map<Long, FormField> fields = Map.of(
+            1L, field(1L, FormField.FieldType.NUMBER),
+            2L, field(2L, FormField.FieldType.DATE),
+            3L, field(3L, FormField.FieldType.TEXT),
+            4L, field(4L, FormField.FieldType.CHECKBOX),
+            5L, field(5L, FormField.FieldType.DROPDOWN));
+    
+    @Test
+    void usesTypedColumnForField() {
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        
+        String sql = query.build(9L, filter("ALL", equalsCondition(1L, " 42 ")), null, 11);
+        
+        assertThat(sql).isEqualTo("SELECT r.id FROM responses r WHERE r.form_id = :formId AND " +
+                "(r.id IN (SELECT e.response_id FROM response_entries e WHERE e.form_field_id = :p1 " +
+                "AND e.numeric_value = :p2)) ORDER BY r.submitted_at DESC, r.id DESC LIMIT :limit");
+        assertThat(query.getParams().getValue("p1")).isEqualTo(1L);
+        assertThat(query.getParams().getValue("p2")).isEqualTo(42.0);
+        assertThat(query.getParams().getValue("limit")).isEqualTo(11);
+    }
+    
+    @Test
+    void fallsBackToFullTextForLongEqualsValue() {
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        
+        assertThat(query.build(9L, filter("ALL", equalsCondition(3L, "short")), null, 10))
+                .contains("e.short_value = :p2");
+        assertThat(new ResponseSearchQuery(fields).build(9L, filter("ALL", equalsCondition(3L, "x".repeat(256))), null, 10))
+                .contains("e.field_value = :p2");
+    }
+    
+    @Test
+    void bindsValuesInsteadOfInliningThem() {
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        SearchCondition condition = condition(3L, "CONTAINS");
+        condition.setValue("' OR 1=1 --");
+        
+        String sql = query.build(9L, filter("ALL", condition), null, 10);
+        
+        assertThat(sql).doesNotContain("OR 1=1");
+        assertThat(query.getParams().getValue("p2")).isEqualTo("%' OR 1=1 --%");
+    }
+    
+    @Test
+    void escapesLikeWildcards() {
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        SearchCondition condition = condition(3L, "CONTAINS");
+        condition.setValue("100%_\\");
+        
+        query.build(9L, filter("ALL", condition), null, 10);
+        
+        assertThat(query.getParams().getValue("p2")).isEqualTo("%100\\%\\_\\\\%");
+    }
+    
+    @Test
+    void buildsOpenAndClosedRanges() {
+        SearchCondition closed = condition(2L, "RANGE");
+        closed.setMin("2024-01-01");
+        closed.setMax("2024-12-31");
+        SearchCondition open = condition(1L, "RANGE");
+        open.setMax("10");
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        
+        String sql = query.build(9L, filter("ANY", closed, open), null, 10);
+        
+        assertThat(sql).contains("e.date_value >= :p2 AND e.date_value < :p3").contains(" OR ")
+                .contains("e.numeric_value <= :p5");
+        assertThat(query.getParams().getValue("p2")).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        // The max day is included whatever the time of day
+        assertThat(query.getParams().getValue("p3")).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+    
+    @Test
+    void matchesWholeDayForDateEquals() {
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        
+        assertThat(query.build(9L, filter("ALL", equalsCondition(2L, "2024-02-29")), null, 10))
+                .contains("e.date_value >= :p2 AND e.date_value < :p3");
+        assertThat(query.getParams().getValue("p2")).isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+        assertThat(query.getParams().getValue("p3")).isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+    }
+    
+    @Test
+    void fallsBackToFullTextForLongOptions() {
+        String longOption = "x".repeat(256);
+        SearchCondition mixed = condition(5L, "IN");
+        mixed.setValues(List.of("Red", longOption));
+        SearchCondition shortOnly = condition(5L, "IN");
+        shortOnly.setValues(List.of("Red", "Blue"));
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        
+        assertThat(query.build(9L, filter("ALL", mixed), null, 10))
+                .contains("(e.short_value IN (:p2) OR e.field_value IN (:p3))");
+        assertThat(query.getParams().getValue("p2")).isEqualTo(List.of("Red"));
+        assertThat(query.getParams().getValue("p3")).isEqualTo(List.of(longOption));
+        assertThat(new ResponseSearchQuery(fields).build(9L, filter("ALL", shortOnly), null, 10))
+                .contains("e.short_value IN (:p2)").doesNotContain("field_value");
+    }
+    
+    @Test
+    void addsKeysetCursor() {
+        ResponseSearchQuery query = new ResponseSearchQuery(fields);
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 12, 0);
+        
+        String sql = query.build(9L, null, new ResponseCursor(at, 77L), 10);
+        
+        assertThat(sql).contains("(r.submitted_at < :afterAt OR (r.submitted_at = :afterAt AND r.id < :afterId))");
+        assertThat(query.getParams().getValue("afterAt")).isEqualTo(at);
+        assertThat(query.getParams().getValue("afterId")).isEqualTo(77L);
+    }
+    
+    @Test
+    void rejectsInvalidConditions() {
+        assertRejected(equalsCondition(99L, "x"), "Field does not belong to this form: 99");
+        assertRejected(condition(3L, null), "Search condition for field 3 has no operator");
+        assertRejected(condition(3L, "LIKE"), "Unsupported search operator: LIKE");
+        assertRejected(condition(3L, "EQUALS"), "Search condition for field 3 needs a value");
+        assertRejected(equalsCondition(1L, "NaN"), "Search value for field 1 must be a number");
+        assertRejected(equalsCondition(2L, "01/02/2024"), "Search value for field 2 must be a date in yyyy-MM-dd format");
+        assertRejected(condition(3L, "RANGE"), "RANGE is only supported on NUMBER and DATE fields");
+        assertRejected(condition(1L, "RANGE"), "RANGE on field 1 needs min or max");
+        assertRejected(condition(1L, "IN"), "IN on field 1 needs at least one value");
+        
+        SearchCondition inOnText = condition(3L, "IN");
+        inOnText.setValues(List.of("a"));
+        assertRejected(inOnText, "IN is only supported on RADIO, DROPDOWN and CHECKBOX fields");
+    }
+    
+    @Test
+    void rejectsUnknownMatch() {
+        assertThatThrownBy(() -> new ResponseSearchQuery(fields).build(9L, filter("SOME", equalsCondition(3L, "x")), null, 10))
+                .hasMessage("Search match must be ALL or ANY");
+    }
+    
+    @Test
+    void limitsConditionsAndDepth() {
+        List<SearchCondition> conditions = new ArrayList<>(Collections.nCopies(
+                ResponseSearchQuery.MAX_CONDITIONS + 1, equalsCondition(3L, "x")));
+        ResponseSearchFilter tooMany = new ResponseSearchFilter();
+        tooMany.setConditions(conditions);
+        assertThatThrownBy(() -> new ResponseSearchQuery(fields).build(9L, tooMany, null, 10))
+                .hasMessage("A search can have at most 20 conditions");
+        
+        ResponseSearchFilter tooDeep = filter("ALL", equalsCondition(3L, "x"));
+        for (int i = 0; i < ResponseSearchQuery.MAX_DEPTH; i++) {
+            ResponseSearchFilter parent = new ResponseSearchFilter();
+            parent.setGroups(List.of(tooDeep));
+            tooDeep = parent;
+        }
+        ResponseSearchFilter filter = tooDeep;
+        assertThatThrownBy(() -> new ResponseSearchQuery(fields).build(9L, filter, null, 10))
+                .hasMessage("Search filters can be nested at most 3 levels deep");
+    }
+    
+    private void assertRejected(SearchCondition condition, String message) {
+        assertThatThrownBy(() -> new ResponseSearchQuery(fields).build(9L, filter("ALL", condition), null, 10))
+                .hasMessage(message);
+    }
+    
+    private static ResponseSearchFilter filter(String match, SearchCondition... conditions) {
+        ResponseSearchFilter filter = new ResponseSearchFilter();
+        filter.setMatch(match);
+        filter.setConditions(List.of(conditions));
+        return filter;
+    }
+    
+    private static SearchCondition equalsCondition(Long fieldId, String value) {
+        SearchCondition condition = condition(fieldId, "EQUALS");
+        condition.setValue(value);
+        return condition;
+    }
+    
+    private static SearchCondition condition(Long fieldId, String operator) {
+        SearchCondition condition = new SearchCondition();
+        condition.setFieldId(fieldId);
+        condition.setOperator(operator);
+        return condition;
+    }
+    
+    private static FormField field(Long id, FormField.FieldType type) {
+        FormField field = new FormField(null, "Field " + id, type, id.intValue());
+        field.setId(id);
+        return field;
+    }
+}
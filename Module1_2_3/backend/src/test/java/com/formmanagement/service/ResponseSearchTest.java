@@ -0,0 +1,219 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.CursorPage;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.dto.ResponseSearchFilter;
+import com.formmanagement.dto.ResponseSearchRequest;
+import com.formmanagement.dto.SearchCondition;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the generated SQL on H2 in MySQL mode over a small, known set of responses
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseSearchTest {
+    
+    private static final LocalDateTime SUBMITTED_AT = LocalDateTime.of(2024, 6, 1, 9, 0);
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private User owner;
+    
+    private Form form;
+    
+    private Map<String, FormField> fields;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Search");
+        formDto.setFields(List.of(fieldDto("Age", "NUMBER", 1), fieldDto("Born", "DATE", 2),
+                                  fieldDto("Languages", "CHECKBOX", 3), fieldDto("Notes", "TEXTAREA", 4),
+                                  fieldDto("Color", "DROPDOWN", 5)));
+        form = formService.createForm(formDto, owner);
+        fields = formFieldRepository.findByForm(form).stream()
+                .collect(Collectors.toMap(FormField::getLabel, Function.identity()));
+        
+        persist("r1", Map.of("Age", "25", "Born", "1990-05-01", "Languages", List.of("Java", "Go"),
+                             "Notes", "100% sure", "Color", "Red"));
+        persist("r2", Map.of("Age", "40", "Born", "1980-01-01", "Languages", List.of("JavaScript"),
+                             "Notes", "maybe", "Color", "Blue"));
+        persist("r3", Map.of("Age", "31", "Born", "1995-12-31", "Languages", List.of("Go"),
+                             "Notes", "100 percent", "Color", "Red"));
+    }
+    
+    @Test
+    void matchesNumberByValue() {
+        assertThat(search(filter("ALL", equalsCondition("Age", "31.0")))).containsExactly("r3");
+    }
+    
+    @Test
+    void matchesDateRange() {
+        SearchCondition born = condition("Born", "RANGE");
+        born.setMin("1985-01-01");
+        
+        assertThat(search(filter("ALL", born))).containsExactlyInAnyOrder("r1", "r3");
+    }
+    
+    @Test
+    void matchesDatesWithTimeOfDayByDay() {
+        // Answers stored before validation could carry a time of day
+        jdbcTemplate.update("UPDATE response_entries SET date_value = ? WHERE form_field_id = ? AND field_value = ?",
+                            LocalDateTime.of(1995, 12, 31, 18, 30), fields.get("Born").getId(), "1995-12-31");
+        SearchCondition born = condition("Born", "RANGE");
+        born.setMin("1990-01-01");
+        born.setMax("1995-12-31");
+        
+        assertThat(search(filter("ALL", equalsCondition("Born", "1995-12-31")))).containsExactly("r3");
+        assertThat(search(filter("ALL", born))).containsExactlyInAnyOrder("r1", "r3");
+    }
+    
+    @Test
+    void matchesOptionsTooLongForTheShortColumn() {
+        String longOption = "Ultramarine ".repeat(30);
+        persist("r4", Map.of("Color", longOption));
+        SearchCondition colors = condition("Color", "IN");
+        colors.setValues(List.of("Blue", longOption));
+        
+        assertThat(search(filter("ALL", colors))).containsExactlyInAnyOrder("r2", "r4");
+    }
+    
+    @Test
+    void matchesWholeCheckboxOptions() {
+        SearchCondition languages = condition("Languages", "IN");
+        languages.setValues(List.of("Java"));
+        
+        assertThat(search(filter("ALL", languages))).containsExactly("r1");
+    }
+    
+    @Test
+    void treatsLikeWildcardsLiterally() {
+        SearchCondition notes = condition("Notes", "CONTAINS");
+        notes.setValue("100%");
+        
+        assertThat(search(filter("ALL", notes))).containsExactly("r1");
+    }
+    
+    @Test
+    void combinesNestedGroups() {
+        SearchCondition young = condition("Age", "RANGE");
+        young.setMax("26");
+        SearchCondition unsure = condition("Notes", "CONTAINS");
+        unsure.setValue("maybe");
+        
+        ResponseSearchFilter filter = filter("ALL", equalsCondition("Color", "Red"));
+        filter.setGroups(List.of(filter("ANY", young, unsure)));
+        
+        assertThat(search(filter)).containsExactly("r1");
+        assertThat(search(filter("ANY", equalsCondition("Color", "Blue"), young)))
+                .containsExactlyInAnyOrder("r1", "r2");
+    }
+    
+    @Test
+    void pagesThroughTiedTimestampsWithoutGapsOrDuplicates() {
+        for (int i = 4; i <= 10; i++) {
+            persist("r" + i, Map.of("Color", "Red"));
+        }
+        
+        List<ResponseDto> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseSearchRequest request = new ResponseSearchRequest();
+            request.setSize(3);
+            request.setCursor(cursor);
+            CursorPage<ResponseDto> page = responseService.searchResponses(form.getId(), request, owner);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(3);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        // Every response has the same submitted_at, so the order comes from the id tie-breaker
+        assertThat(all).hasSize(10);
+        assertThat(all).extracting(ResponseDto::getId).doesNotHaveDuplicates()
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+    
+    private List<String> search(ResponseSearchFilter filter) {
+        ResponseSearchRequest request = new ResponseSearchRequest();
+        request.setFilter(filter);
+        return responseService.searchResponses(form.getId(), request, owner).getItems().stream()
+                .map(ResponseDto::getRespondentName)
+                .collect(Collectors.toList());
+    }
+    
+    private void persist(String name, Map<String, Object> answers) {
+        Map<String, Object> data = new HashMap<>();
+        answers.forEach((label, value) -> data.put(String.valueOf(fields.get(label).getId()), value));
+        PendingSubmission submission = new PendingSubmission(UUID.randomUUID().toString(), form.getId(), null,
+                data, null, name, "127.0.0.1", "test");
+        submission.setAcceptedAt(SUBMITTED_AT);
+        responseService.persistSubmissions(List.of(submission));
+    }
+    
+    private ResponseSearchFilter filter(String match, SearchCondition... conditions) {
+        ResponseSearchFilter filter = new ResponseSearchFilter();
+        filter.setMatch(match);
+        filter.setConditions(List.of(conditions));
+        return filter;
+    }
+    
+    private SearchCondition equalsCondition(String label, String value) {
+        SearchCondition condition = condition(label, "EQUALS");
+        condition.setValue(value);
+        return condition;
+    }
+    
+    private SearchCondition condition(String label, String operator) {
+        SearchCondition condition = new SearchCondition();
+        condition.setFieldId(fields.get(label).getId());
+        condition.setOperator(operator);
+        return condition;
+    }
+    
+    private static FormFieldDto fieldDto(String label, String type, int order) {
+        FormFieldDto dto = new FormFieldDto();
+        dto.setLabel(label);
+        dto.setFieldType(type);
+        dto.setFieldOrder(order);
+        return dto;
+    }
+}
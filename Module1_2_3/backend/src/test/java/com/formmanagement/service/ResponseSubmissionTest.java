@@ -0,0 +1,111 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.Response;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.ResponseEntryRepository;
+import com.formmanagement.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A submission writes its entries as one JDBC batch, so the number of statements must not
+// grow with the number of answered fields
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseSubmissionTest {
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private ResponseEntryRepository responseEntryRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private User owner;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+    
+    @Test
+    void entriesAreInsertedInOneBatch() {
+        Form few = createForm(2);
+        Form many = createForm(30);
+        
+        // The first submission to a form seeds its counter
+        submit(few);
+        submit(many);
+        
+        statistics.clear();
+        submit(few);
+        long fewCount = statistics.getPrepareStatementCount();
+        
+        statistics.clear();
+        Response response = submit(many);
+        long manyCount = statistics.getPrepareStatementCount();
+        
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(31);
+        // Crossing an id block boundary may add a generator update
+        assertThat(manyCount).isLessThanOrEqualTo(fewCount + 2);
+        assertThat(responseEntryRepository.findByResponse(response)).hasSize(30);
+    }
+    
+    private Response submit(Form form) {
+        Map<String, Object> data = new HashMap<>();
+        for (FormField field : formFieldRepository.findByForm(form)) {
+            data.put(String.valueOf(field.getId()), field.getLabel() + " answer");
+        }
+        return responseService.submitResponse(form.getId(), data, null, "Ann", "127.0.0.1", "test", null);
+    }
+    
+    private Form createForm(int fieldCount) {
+        List<FormFieldDto> fields = new ArrayList<>();
+        for (int i = 0; i < fieldCount; i++) {
+            FormFieldDto field = new FormFieldDto();
+            field.setLabel("Field " + i);
+            field.setFieldType("TEXT");
+            field.setFieldOrder(i);
+            fields.add(field);
+        }
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Batched");
+        formDto.setFields(fields);
+        return formService.createForm(formDto, owner);
+    }
+}
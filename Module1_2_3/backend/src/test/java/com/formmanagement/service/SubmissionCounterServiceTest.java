@@ -0,0 +1,152 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.Form;
+import com.formmanagement.repository.ResponseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubmissionCounterServiceTest {
+    
+    private SubmissionCounterService service;
+    
+    private ResponseRepository responseRepository;
+    
+    private Form form;
+    
+    @BeforeEach
+    void setUp() {
+        responseRepository = mock(ResponseRepository.class);
+        when(responseRepository.countByForm(any())).thenReturn(0L);
+        when(responseRepository.findRespondentEmailsByForm(any())).thenReturn(List.of("stored@example.com"));
+        
+        service = new SubmissionCounterService();
+        ReflectionTestUtils.setField(service, "responseRepository", responseRepository);
+        
+        form = new Form();
+        form.setId(1L);
+        form.setAllowDuplicate(true);
+    }
+    
+    @Test
+    void limitIsEnforced() {
+        form.setSubmissionLimit(2);
+        service.reserve(form, null);
+        service.reserve(form, null);
+        
+        assertThatThrownBy(() -> service.reserve(form, null)).hasMessage("Form submission limit reached");
+    }
+    
+    @Test
+    void refreshKeepsInFlightReservations() {
+        form.setSubmissionLimit(2);
+        service.reserve(form, null);
+        
+        // A form update while the first submission is still in flight
+        service.refresh(form.getId());
+        service.reserve(form, null);
+        
+        assertThatThrownBy(() -> service.reserve(form, null)).hasMessage("Form submission limit reached");
+    }
+    
+    @Test
+    void raisedLimitAppliesWithoutReseed() {
+        form.setSubmissionLimit(1);
+        service.reserve(form, null);
+        
+        form.setSubmissionLimit(2);
+        service.refresh(form.getId());
+        
+        assertThatNoException().isThrownBy(() -> service.reserve(form, null));
+        assertThatThrownBy(() -> service.reserve(form, null)).hasMessage("Form submission limit reached");
+    }
+    
+    @Test
+    void releaseFreesTheSlot() {
+        form.setSubmissionLimit(1);
+        service.reserve(form, null).release();
+        
+        assertThatNoException().isThrownBy(() -> service.reserve(form, null));
+    }
+    
+    @Test
+    void duplicateEmailsAreRejected() {
+        form.setAllowDuplicate(false);
+        
+        assertThatThrownBy(() -> service.reserve(form, "Stored@Example.com"))
+                .hasMessage("Duplicate submission not allowed");
+        service.reserve(form, "new@example.com");
+        assertThatThrownBy(() -> service.reserve(form, "NEW@example.com"))
+                .hasMessage("Duplicate submission not allowed");
+    }
+    
+    @Test
+    void refreshKeepsInFlightEmails() {
+        form.setAllowDuplicate(false);
+        SubmissionCounterService.Reservation inFlight = service.reserve(form, "new@example.com");
+        
+        service.refresh(form.getId());
+        assertThatThrownBy(() -> service.reserve(form, "new@example.com"))
+                .hasMessage("Duplicate submission not allowed");
+        
+        inFlight.release();
+        assertThatNoException().isThrownBy(() -> service.reserve(form, "new@example.com"));
+    }
+    
+    @Test
+    void disallowingDuplicatesLoadsStoredEmails() {
+        service.reserve(form, "stored@example.com");
+        
+        form.setAllowDuplicate(false);
+        service.refresh(form.getId());
+        
+        assertThatThrownBy(() -> service.reserve(form, "stored@example.com"))
+                .hasMessage("Duplicate submission not allowed");
+    }
+    
+    @Test
+    void slowSeedDoesNotBlockOtherForms() throws Exception {
+        // Ids 1 and 17 land in the same bin of a fresh ConcurrentHashMap
+        Form other = new Form();
+        other.setId(17L);
+        other.setAllowDuplicate(true);
+        
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(responseRepository.countByForm(form)).thenAnswer(invocation -> {
+            counting.countDown();
+            release.await();
+            return 0L;
+        });
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> service.reserve(form, null));
+            assertThat(counting.await(5, TimeUnit.SECONDS)).isTrue();
+            
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.reserve(other, null));
+            
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
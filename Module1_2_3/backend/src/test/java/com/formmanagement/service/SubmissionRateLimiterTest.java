@@ -0,0 +1,80 @@
+package com.formmanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionRateLimiterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private SubmissionRateLimiter rateLimiter;
+    
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new SubmissionRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "perIpCapacity", 2);
+        ReflectionTestUtils.setField(rateLimiter, "perIpPerMinute", 1);
+        ReflectionTestUtils.setField(rateLimiter, "perFormCapacity", 3);
+        ReflectionTestUtils.setField(rateLimiter, "perFormPerMinute", 1);
+        ReflectionTestUtils.setField(rateLimiter, "maxTrackedKeys", 1000L);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        rateLimiter.start();
+    }
+    
+    @Test
+    void limitsEachAddressSeparately() {
+        assertThat(rateLimiter.tryAcquire("198.51.100.1", 1L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.1", 2L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.1", 3L)).isPositive();
+        
+        assertThat(rateLimiter.tryAcquire("198.51.100.2", 4L)).isZero();
+        assertThat(rejected("ip")).isEqualTo(1);
+    }
+    
+    @Test
+    void limitsEachFormAcrossAddresses() {
+        assertThat(rateLimiter.tryAcquire("198.51.100.1", 7L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.2", 7L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.3", 7L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.4", 7L)).isPositive();
+        
+        assertThat(rateLimiter.tryAcquire("198.51.100.4", 8L)).isZero();
+        assertThat(rejected("form")).isEqualTo(1);
+    }
+    
+    @Test
+    void addressOverItsLimitDoesNotUseFormTokens() {
+        rateLimiter.tryAcquire("198.51.100.1", 9L);
+        rateLimiter.tryAcquire("198.51.100.1", 9L);
+        rateLimiter.tryAcquire("198.51.100.1", 9L);
+        
+        // Only two of the three attempts reached the form bucket
+        assertThat(rateLimiter.tryAcquire("198.51.100.2", 9L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.3", 9L)).isPositive();
+    }
+    
+    @Test
+    void formOverItsLimitDoesNotUseAddressTokens() {
+        rateLimiter.tryAcquire("198.51.100.1", 10L);
+        rateLimiter.tryAcquire("198.51.100.2", 10L);
+        rateLimiter.tryAcquire("198.51.100.3", 10L);
+        
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("198.51.100.4", 10L)).isPositive();
+        }
+        
+        // The refused attempts left both of the address's tokens in place
+        assertThat(rateLimiter.tryAcquire("198.51.100.4", 11L)).isZero();
+        assertThat(rateLimiter.tryAcquire("198.51.100.4", 11L)).isZero();
+        assertThat(rejected("ip")).isZero();
+    }
+    
+    private double rejected(String scope) {
+        return meterRegistry.get("submissions.rate_limited").tag("scope", scope).counter().count();
+    }
+}
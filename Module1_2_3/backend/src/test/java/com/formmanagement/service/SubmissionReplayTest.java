@@ -0,0 +1,90 @@
+package com.formmanagement.service;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.ResponseRepository;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SubmissionReplayTest {
+    
+    @Autowired
+    private ResponseService responseService;
+    
+    @Autowired
+    private FormService formService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+    
+    @Autowired
+    private ResponseRepository responseRepository;
+    
+    private Form form;
+    
+    private FormField field;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "owner-" + UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+        
+        FormFieldDto fieldDto = new FormFieldDto();
+        fieldDto.setLabel("Name");
+        fieldDto.setFieldType("TEXT");
+        fieldDto.setFieldOrder(1);
+        FormDto formDto = new FormDto();
+        formDto.setTitle("Replay");
+        formDto.setFields(List.of(fieldDto));
+        
+        form = formService.createForm(formDto, owner);
+        field = formFieldRepository.findByForm(form).get(0);
+    }
+    
+    @Test
+    void replayedReceiptIsStoredOnce() {
+        PendingSubmission submission = submission("first");
+        
+        responseService.persistSubmissions(List.of(submission));
+        // The journal file survived the commit, e.g. a crash before deleteJournal
+        responseService.persistSubmissions(List.of(submission));
+        
+        assertThat(responseRepository.countByForm(form)).isEqualTo(1);
+        assertThat(responseRepository.existsByReceiptId(submission.getReceiptId())).isTrue();
+    }
+    
+    @Test
+    void batchSkipsOnlyPersistedReceipts() {
+        PendingSubmission persisted = submission("first");
+        responseService.persistSubmissions(List.of(persisted));
+        
+        responseService.persistSubmissions(List.of(persisted, submission("second"), submission("third")));
+        
+        assertThat(responseRepository.countByForm(form)).isEqualTo(3);
+    }
+    
+    private PendingSubmission submission(String value) {
+        return new PendingSubmission(UUID.randomUUID().toString(), form.getId(), null,
+                Map.of(String.valueOf(field.getId()), value), null, null, "127.0.0.1", "test");
+    }
+}
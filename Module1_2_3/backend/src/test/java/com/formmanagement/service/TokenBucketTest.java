@@ -0,0 +1,94 @@
+package com.formmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+    
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, HOUR);
+        
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.tryConsume()).isZero();
+        
+        // The next token is one refill interval away
+        assertThat(bucket.tryConsume()).isPositive().isLessThanOrEqualTo(HOUR);
+    }
+    
+    @Test
+    void rejectedAttemptDoesNotUseUpTokens() {
+        TokenBucket bucket = new TokenBucket(1, HOUR);
+        bucket.tryConsume();
+        
+        long first = bucket.tryConsume();
+        long second = bucket.tryConsume();
+        
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+    }
+    
+    @Test
+    void refundReturnsTheToken() {
+        TokenBucket bucket = new TokenBucket(2, HOUR);
+        bucket.tryConsume();
+        bucket.tryConsume();
+        
+        bucket.refund();
+        
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.tryConsume()).isPositive();
+    }
+    
+    @Test
+    void refillsOverTime() throws Exception {
+        long interval = TimeUnit.MILLISECONDS.toNanos(50);
+        TokenBucket bucket = new TokenBucket(1, interval);
+        bucket.tryConsume();
+        
+        long wait = bucket.tryConsume();
+        assertThat(wait).isPositive();
+        
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(bucket.tryConsume()).isZero();
+    }
+    
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, HOUR);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 50; j++) {
+                        if (bucket.tryConsume() == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        
+        assertThat(granted.get()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,58 @@
+package com.formmanagement.service;
+
+import com.formmanagement.model.User;
+import com.formmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserPrincipalCacheTest {
+    
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User(name, name + "@example.com", "secret", User.Role.USER));
+    }
+    
+    @Test
+    void reusesThePrincipalForTheSameToken() {
+        Date issuedAt = new Date();
+        
+        User first = userPrincipalCache.getUser(user.getUsername(), issuedAt);
+        
+        assertThat(userPrincipalCache.getUser(user.getUsername(), new Date(issuedAt.getTime()))).isSameAs(first);
+        // A newer login loads the user again
+        assertThat(userPrincipalCache.getUser(user.getUsername(), new Date(issuedAt.getTime() + 1000)))
+                .isNotSameAs(first);
+    }
+    
+    @Test
+    void userUpdateEvictsCachedPrincipals() {
+        Date issuedAt = new Date();
+        assertThat(userPrincipalCache.getUser(user.getUsername(), issuedAt).getRole()).isEqualTo(User.Role.USER);
+        
+        user.setRole(User.Role.ADMIN);
+        userRepository.save(user);
+        
+        User reloaded = userPrincipalCache.getUser(user.getUsername(), issuedAt);
+        assertThat(reloaded.getRole()).isEqualTo(User.Role.ADMIN);
+        assertThat(reloaded.getAuthorities()).extracting(Object::toString).contains("ROLE_ADMIN");
+    }
+}
@@ -0,0 +1,65 @@
+-- Tables as ddl-auto: update left them before the Flyway migrations: the V1 columns, but only
+-- the indexes the database adds for keys, none of the idx_* names
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+CREATE TABLE forms (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    creator_id BIGINT NOT NULL,
+    is_active BIT,
+    is_public BIT,
+    submission_limit INT,
+    allow_duplicate BIT,
+    require_login BIT,
+    expires_at DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    CONSTRAINT fk_forms_creator FOREIGN KEY (creator_id) REFERENCES users(id)
+);
+
+CREATE TABLE form_fields (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    form_id BIGINT NOT NULL,
+    label VARCHAR(255) NOT NULL,
+    field_type VARCHAR(20) NOT NULL,
+    is_required BIT,
+    field_order INT NOT NULL,
+    placeholder VARCHAR(255),
+    help_text TEXT,
+    options TEXT,
+    validation_rules TEXT,
+    CONSTRAINT fk_form_fields_form FOREIGN KEY (form_id) REFERENCES forms(id)
+);
+
+CREATE TABLE responses (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    form_id BIGINT NOT NULL,
+    user_id BIGINT,
+    respondent_email VARCHAR(100),
+    respondent_name VARCHAR(100),
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    submitted_at DATETIME(6),
+    is_duplicate BIT,
+    CONSTRAINT fk_responses_form FOREIGN KEY (form_id) REFERENCES forms(id),
+    CONSTRAINT fk_responses_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE response_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    response_id BIGINT NOT NULL,
+    form_field_id BIGINT NOT NULL,
+    field_value TEXT,
+    CONSTRAINT fk_response_entries_response FOREIGN KEY (response_id) REFERENCES responses(id),
+    CONSTRAINT fk_response_entries_field FOREIGN KEY (form_field_id) REFERENCES form_fields(id)
+);
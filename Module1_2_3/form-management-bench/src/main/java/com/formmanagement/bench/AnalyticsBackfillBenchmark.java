@@ -0,0 +1,98 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.BackfillJobDto;
+import com.formmanagement.dto.PendingSubmission;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import com.formmanagement.service.AnalyticsBackfillService;
+import com.formmanagement.service.FormService;
+import com.formmanagement.service.ResponseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Scaling of the analytics backfill across cores: the same seeded form is rebuilt with one
+// ForkJoin worker per core count in the parallelism parameter. The pool is sized at startup,
+// so each value gets its own backend. Each invocation is one complete job, restarted from an
+// empty checkpoint; compare the scores across parallelism values for the speed-up.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnalyticsBackfillBenchmark {
+    
+    private static final int SEED_BATCH = 500;
+    
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+    
+    @Param({"20000"})
+    public int seedResponses;
+    
+    private Path dataDir;
+    
+    private ConfigurableApplicationContext context;
+    
+    private AnalyticsBackfillService backfillService;
+    
+    private Form form;
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        dataDir = Files.createTempDirectory("form-management-bench");
+        context = BackendState.startBackend(dataDir, "--analytics.backfill.parallelism=" + parallelism,
+                "--fulltext.enabled=false");
+        backfillService = context.getBean(AnalyticsBackfillService.class);
+        
+        User creator = context.getBean(UserRepository.class)
+                .save(new User("bench", "bench@example.com", "unused", User.Role.USER));
+        form = context.getBean(FormService.class)
+                .createForm(BenchFixtures.formDto("Backfill form", BackendState.FIELD_COUNT), creator);
+        List<FormField> fields = context.getBean(FormFieldRepository.class).findByForm(form);
+        
+        // Written through the queued-ingestion path, which inserts whole batches per transaction
+        ResponseService responseService = context.getBean(ResponseService.class);
+        List<PendingSubmission> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < seedResponses; i++) {
+            batch.add(new PendingSubmission(UUID.randomUUID().toString(), form.getId(), null,
+                    BenchFixtures.payload(fields, i), null, null, "127.0.0.1", "jmh"));
+            if (batch.size() == SEED_BATCH || i == seedResponses - 1) {
+                responseService.persistSubmissions(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+    
+    @Benchmark
+    public BackfillJobDto backfill() throws InterruptedException {
+        backfillService.startBackfill(form.getId(), true);
+        BackfillJobDto status = backfillService.getBackfillStatus(form.getId());
+        while (status.getRunning()) {
+            Thread.sleep(1);
+            status = backfillService.getBackfillStatus(form.getId());
+        }
+        if (!"COMPLETED".equals(status.getStatus())) {
+            throw new IllegalStateException("Backfill ended as " + status.getStatus() + ": " + status.getErrorMessage());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,141 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.FormManagementApplication;
+import com.formmanagement.dto.FullTextMatchDto;
+import com.formmanagement.dto.ResponseSearchFilter;
+import com.formmanagement.dto.ResponseSearchRequest;
+import com.formmanagement.dto.SearchCondition;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.repository.UserRepository;
+import com.formmanagement.service.FormAnalyticsService;
+import com.formmanagement.service.FormService;
+import com.formmanagement.service.ResponseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// The backend's Spring context on an in-memory H2 database in MySQL mode (the "bench"
+// profile), with one form seeded with responses. Started once per fork, so every benchmark
+// method measures against a fresh database.
+@State(Scope.Benchmark)
+public class BackendState {
+    
+    static final int FIELD_COUNT = 10;
+    
+    @Param({"5000"})
+    public int seedResponses;
+    
+    private Path dataDir;
+    
+    ConfigurableApplicationContext context;
+    
+    FormService formService;
+    
+    ResponseService responseService;
+    
+    FormAnalyticsService formAnalyticsService;
+    
+    User creator;
+    
+    Form form;
+    
+    List<FormField> fields;
+    
+    ResponseSearchRequest numberRangeSearch;
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException {
+        dataDir = Files.createTempDirectory("form-management-bench");
+        context = startBackend(dataDir);
+        
+        formService = context.getBean(FormService.class);
+        responseService = context.getBean(ResponseService.class);
+        formAnalyticsService = context.getBean(FormAnalyticsService.class);
+        
+        creator = context.getBean(UserRepository.class)
+                .save(new User("bench", "bench@example.com", "unused", User.Role.USER));
+        form = formService.createForm(BenchFixtures.formDto("Benchmark form", FIELD_COUNT), creator);
+        fields = context.getBean(FormFieldRepository.class).findByForm(form).stream()
+                .sorted(Comparator.comparing(FormField::getFieldOrder))
+                .toList();
+        
+        for (int i = 0; i < seedResponses; i++) {
+            submit(i);
+        }
+        awaitFullTextIndex();
+        
+        numberRangeSearch = numberRangeSearch();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+    
+    // Arguments take precedence over application.yml, unlike builder properties
+    static ConfigurableApplicationContext startBackend(Path dataDir, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--fulltext.index-dir=" + dataDir.resolve("fulltext"),
+                "--uploads.dir=" + dataDir.resolve("uploads"),
+                "--ingestion.spill-dir=" + dataDir.resolve("ingestion")));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(FormManagementApplication.class)
+                .profiles("bench")
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+    
+    void submit(int seq) {
+        responseService.submitResponse(form.getId(), BenchFixtures.payload(fields, seq), null, null,
+                                       "127.0.0.1", "jmh", null);
+    }
+    
+    // Answers are indexed asynchronously in submission order, so the last one showing up
+    // means the whole seed is searchable
+    private void awaitFullTextIndex() throws IOException, InterruptedException {
+        String lastMarker = "marker" + (seedResponses - 1);
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            List<FullTextMatchDto> matches = responseService.searchFullText(form.getId(), lastMarker, 1, creator);
+            if (!matches.isEmpty()) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Full-text index did not catch up with the seeded responses");
+    }
+    
+    // NUMBER answers are seq % 1000, so this matches about a tenth of the responses
+    private ResponseSearchRequest numberRangeSearch() {
+        FormField numberField = fields.stream()
+                .filter(field -> field.getFieldType() == FormField.FieldType.NUMBER)
+                .findFirst()
+                .orElseThrow();
+        
+        SearchCondition condition = new SearchCondition();
+        condition.setFieldId(numberField.getId());
+        condition.setOperator("RANGE");
+        condition.setMin("100");
+        condition.setMax("199");
+        
+        ResponseSearchFilter filter = new ResponseSearchFilter();
+        filter.setConditions(List.of(condition));
+        
+        ResponseSearchRequest request = new ResponseSearchRequest();
+        request.setFilter(filter);
+        request.setSize(50);
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.model.*;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Deterministic forms and payloads shared by the benchmarks. Field types cycle through the
+// kinds the validator and typed columns treat differently.
+final class BenchFixtures {
+    
+    static final String OPTIONS = "[\"Red\", \"Green\", \"Blue\", \"Yellow\"]";
+    
+    private static final String[] COLORS = {"Red", "Green", "Blue", "Yellow"};
+    
+    private static final FormField.FieldType[] TYPES = {
+        FormField.FieldType.TEXT, FormField.FieldType.EMAIL, FormField.FieldType.NUMBER,
+        FormField.FieldType.DATE, FormField.FieldType.RADIO, FormField.FieldType.TEXTAREA,
+        FormField.FieldType.DROPDOWN
+    };
+    
+    private BenchFixtures() {}
+    
+    static FormDto formDto(String title, int fieldCount) {
+        FormDto dto = new FormDto();
+        dto.setTitle(title);
+        dto.setDescription("Generated for benchmarks");
+        dto.setIsPublic(true);
+        dto.setAllowDuplicate(true);
+        
+        List<FormFieldDto> fields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            FormFieldDto field = new FormFieldDto();
+            field.setLabel("Field " + i);
+            field.setFieldType(type(i).name());
+            field.setIsRequired(i % 3 == 0);
+            field.setFieldOrder(i);
+            field.setOptions(hasOptions(type(i)) ? OPTIONS : null);
+            field.setValidationRules(type(i) == FormField.FieldType.TEXT ? "{\"maxLength\": 200}" : null);
+            fields.add(field);
+        }
+        dto.setFields(fields);
+        return dto;
+    }
+    
+    // Detached entities with ids, for benchmarks that do not need a database
+    static Form form(int fieldCount) {
+        User creator = new User("bench", "bench@example.com", "unused", User.Role.USER);
+        creator.setId(1L);
+        
+        Form form = new Form();
+        form.setId(1L);
+        form.setTitle("Benchmark form");
+        form.setDescription("Generated for benchmarks");
+        form.setCreator(creator);
+        form.setCreatedAt(LocalDateTime.now());
+        form.setUpdatedAt(LocalDateTime.now());
+        
+        List<FormField> fields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            FormField field = new FormField();
+            field.setId((long) i + 1);
+            field.setForm(form);
+            field.setLabel("Field " + i);
+            field.setFieldType(type(i));
+            field.setIsRequired(i % 3 == 0);
+            field.setFieldOrder(i);
+            field.setOptions(hasOptions(type(i)) ? OPTIONS : null);
+            field.setValidationRules(type(i) == FormField.FieldType.TEXT ? "{\"maxLength\": 200}" : null);
+            fields.add(field);
+        }
+        form.setFields(fields);
+        return form;
+    }
+    
+    // A valid answer for every field; seq varies the values so aggregates and indexes see spread
+    static Map<String, Object> payload(Collection<FormField> fields, int seq) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (FormField field : fields) {
+            data.put(field.getId().toString(), value(field.getFieldType(), seq));
+        }
+        return data;
+    }
+    
+    static String value(FormField.FieldType type, int seq) {
+        return switch (type) {
+            case EMAIL -> "user" + seq + "@example.com";
+            case NUMBER -> Integer.toString(seq % 1000);
+            case DATE -> LocalDate.of(2024, 1, 1).plusDays(seq % 365).toString();
+            case RADIO, DROPDOWN -> COLORS[seq % COLORS.length];
+            case TEXTAREA -> "Lorem ipsum dolor sit amet, feedback number " + seq + " marker" + seq;
+            default -> "Answer " + seq;
+        };
+    }
+    
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+    
+    private static FormField.FieldType type(int index) {
+        return TYPES[index % TYPES.length];
+    }
+    
+    private static boolean hasOptions(FormField.FieldType type) {
+        return type == FormField.FieldType.RADIO || type == FormField.FieldType.DROPDOWN;
+    }
+}
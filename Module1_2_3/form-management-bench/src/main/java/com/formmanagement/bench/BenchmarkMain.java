@@ -0,0 +1,43 @@
+package com.formmanagement.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Entry point of benchmarks.jar. Accepts the usual JMH options; unless -rf is given, results
+// are written as JSON to jmh-results/<label>.json, where the label defaults to a timestamp
+// and can be set with -Dbench.label (e.g. the commit id) to compare runs across commits.
+public final class BenchmarkMain {
+    
+    private BenchmarkMain() {}
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            String label = System.getProperty("bench.label",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+            Path results = Paths.get("jmh-results");
+            Files.createDirectories(results);
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(results.resolve(label + ".json").toString());
+        }
+        
+        new Runner(options.build()).run();
+    }
+}
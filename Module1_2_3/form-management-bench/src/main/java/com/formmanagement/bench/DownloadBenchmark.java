@@ -0,0 +1,155 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.FileReference;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.LoginRequest;
+import com.formmanagement.dto.RegisterRequest;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.model.Response;
+import com.formmanagement.model.User;
+import com.formmanagement.repository.FormFieldRepository;
+import com.formmanagement.service.AuthService;
+import com.formmanagement.service.BlobStoreService;
+import com.formmanagement.service.FormService;
+import com.formmanagement.service.ResponseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Downloads of one stored FILE answer over HTTP, through the security filters, the ownership
+// check and the streaming blob store. The bytes counter reports body bytes per second.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class DownloadBenchmark {
+    
+    private static final int RANGE_LENGTH = 64 * 1024;
+    
+    @Param({"64", "8192"})
+    public int sizeKb;
+    
+    private Path dataDir;
+    
+    private ConfigurableApplicationContext context;
+    
+    private HttpClient client;
+    
+    private HttpRequest download;
+    
+    private HttpRequest rangeDownload;
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        
+        public long bytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException {
+        dataDir = Files.createTempDirectory("form-management-bench");
+        context = BackendState.startBackend(dataDir, "--fulltext.enabled=false");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        
+        AuthService authService = context.getBean(AuthService.class);
+        User creator = authService.registerUser(new RegisterRequest("bench", "bench@example.com", "bench-password-1"));
+        String token = authService.authenticateUser(new LoginRequest("bench", "bench-password-1")).getToken();
+        
+        Form form = context.getBean(FormService.class).createForm(fileFormDto(), creator);
+        FormField field = context.getBean(FormFieldRepository.class).findByForm(form).get(0);
+        
+        byte[] content = new byte[sizeKb * 1024];
+        new Random(42).nextBytes(content);
+        FileReference file = context.getBean(BlobStoreService.class)
+                .store(new ByteArrayInputStream(content), "upload.bin", "application/octet-stream");
+        
+        // Only references made by the upload path are accepted, and the map must be mutable
+        Map<String, Object> data = new HashMap<>();
+        data.put(field.getId().toString(), file);
+        Response response = context.getBean(ResponseService.class)
+                .submitResponse(form.getId(), data, null, null, "127.0.0.1", "bench", creator);
+        
+        client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + port + "/api/responses/" + response.getId() + "/files/" + field.getId());
+        download = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .build();
+        rangeDownload = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=0-" + (RANGE_LENGTH - 1))
+                .build();
+        
+        long length = client.send(download, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+        if (length != content.length) {
+            throw new IllegalStateException("Download returned " + length + " bytes instead of " + content.length);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+    
+    @Benchmark
+    public int download(Bytes bytes) throws IOException, InterruptedException {
+        return send(download, 200, sizeKb * 1024, bytes);
+    }
+    
+    @Benchmark
+    public int rangeDownload(Bytes bytes) throws IOException, InterruptedException {
+        return send(rangeDownload, 206, Math.min(RANGE_LENGTH, sizeKb * 1024), bytes);
+    }
+    
+    private int send(HttpRequest request, int expectedStatus, long length, Bytes bytes)
+            throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Download returned status " + response.statusCode());
+        }
+        bytes.bytes += length;
+        return response.statusCode();
+    }
+    
+    private static FormDto fileFormDto() {
+        FormFieldDto field = new FormFieldDto();
+        field.setLabel("Attachment");
+        field.setFieldType(FormField.FieldType.FILE.name());
+        field.setIsRequired(true);
+        field.setFieldOrder(0);
+        
+        FormDto dto = new FormDto();
+        dto.setTitle("Download benchmark");
+        dto.setDescription("Generated for benchmarks");
+        dto.setIsPublic(true);
+        dto.setAllowDuplicate(true);
+        dto.setFields(List.of(field));
+        return dto;
+    }
+}
@@ -0,0 +1,86 @@
+package com.formmanagement.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.dto.FormFieldDto;
+import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.dto.ResponseEntryDto;
+import com.formmanagement.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping and JSON serialization of a form definition and of one response
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoConversionBenchmark {
+    
+    @Param({"10", "100"})
+    public int fieldCount;
+    
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    
+    private Form form;
+    
+    private Response response;
+    
+    private List<ResponseEntry> entries;
+    
+    private FormDto formDto;
+    
+    @Setup
+    public void setUp() {
+        form = BenchFixtures.form(fieldCount);
+        
+        response = new Response();
+        response.setId(1L);
+        response.setForm(form);
+        response.setIpAddress("127.0.0.1");
+        response.setSubmittedAt(LocalDateTime.now());
+        
+        entries = new ArrayList<>(fieldCount);
+        for (FormField field : form.getFields()) {
+            ResponseEntry entry = new ResponseEntry(response, field, BenchFixtures.value(field.getFieldType(), 42));
+            entry.setId(field.getId());
+            entries.add(entry);
+        }
+        
+        formDto = formDto();
+    }
+    
+    @Benchmark
+    public FormDto formDto() {
+        FormDto dto = new FormDto(form);
+        List<FormFieldDto> fields = new ArrayList<>(form.getFields().size());
+        for (FormField field : form.getFields()) {
+            fields.add(new FormFieldDto(field));
+        }
+        dto.setFields(fields);
+        return dto;
+    }
+    
+    @Benchmark
+    public ResponseDto responseDto() {
+        ResponseDto dto = new ResponseDto(response);
+        List<ResponseEntryDto> entryDtos = new ArrayList<>(entries.size());
+        for (ResponseEntry entry : entries) {
+            entryDtos.add(new ResponseEntryDto(entry));
+        }
+        dto.setEntries(entryDtos);
+        return dto;
+    }
+    
+    @Benchmark
+    public byte[] formDtoJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(formDto);
+    }
+}
@@ -0,0 +1,79 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.service.ResponseExportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full CSV and XLSX exports of the seeded form. The rows counter reports rows per second;
+// peakHeapMb is the highest heap use seen during one export, taken as the sum of the heap
+// pools' peaks and so an upper bound. The fork gets a small heap, so an export that
+// buffered the whole form in memory would fail rather than just score worse.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class ExportBenchmark {
+    
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+    
+    @Param({"csv", "xlsx"})
+    public String format;
+    
+    private ResponseExportService exportService;
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        
+        public long rows;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+    
+    // Holds the largest value of the iteration rather than a sum
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        
+        public double peakHeapMb;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakHeapMb = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp(BackendState state) {
+        exportService = state.context.getBean(ResponseExportService.class);
+    }
+    
+    @Benchmark
+    public void export(BackendState state, Rows rows, Heap heap) throws IOException {
+        HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+        
+        if ("xlsx".equals(format)) {
+            exportService.exportXlsx(state.form.getId(), state.creator, OutputStream.nullOutputStream());
+        } else {
+            exportService.exportCsv(state.form.getId(), state.creator, OutputStream.nullOutputStream());
+        }
+        
+        rows.rows += state.seedResponses;
+        long peak = HEAP_POOLS.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        heap.peakHeapMb = Math.max(heap.peakHeapMb, peak / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,32 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.FormDto;
+import com.formmanagement.model.Form;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Creating a large form: field checks plus the batched insert of its fields
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class FormCreationBenchmark {
+    
+    @Param({"100"})
+    public int fieldCount;
+    
+    private FormDto formDto;
+    
+    @Setup
+    public void setUp() {
+        formDto = BenchFixtures.formDto("Large form", fieldCount);
+    }
+    
+    @Benchmark
+    public Form createForm(BackendState state) {
+        return state.formService.createForm(formDto, state.creator);
+    }
+}
@@ -0,0 +1,50 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.config.JwtUtils;
+import com.formmanagement.model.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issue on login and verification on every authenticated request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private JwtUtils jwtUtils;
+    
+    private Authentication authentication;
+    
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        BenchFixtures.setField(jwtUtils, "jwtSecret", "benchmarkSigningKeyWithEnoughBytes0123456789");
+        BenchFixtures.setField(jwtUtils, "jwtKeyId", "primary");
+        BenchFixtures.setField(jwtUtils, "jwtPreviousKeys", "");
+        BenchFixtures.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        jwtUtils.init();
+        
+        User user = new User("bench", "bench@example.com", "unused", User.Role.USER);
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public Claims verify() {
+        return jwtUtils.getClaimsFromJwtToken(token);
+    }
+}
@@ -0,0 +1,96 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.model.FormField;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The same per-field filters over the seeded entries, answered from the typed columns and
+// their (form_field_id, value) indexes, and from the text in field_value, which is how they
+// had to be answered before the typed layout. H2 plans differ from MySQL's, so compare the
+// two layouts with each other rather than with production numbers.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LayoutBenchmark {
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long numberField;
+    
+    private Long dateField;
+    
+    private Long dropdownField;
+    
+    @Setup(Level.Trial)
+    public void setUp(BackendState state) {
+        jdbcTemplate = state.context.getBean(JdbcTemplate.class);
+        numberField = fieldOfType(state, FormField.FieldType.NUMBER);
+        dateField = fieldOfType(state, FormField.FieldType.DATE);
+        dropdownField = fieldOfType(state, FormField.FieldType.DROPDOWN);
+        
+        // Both layouts must select the same responses, or the comparison means nothing
+        check(typedNumberRange(), textNumberRange());
+        check(typedDateRange(), textDateRange());
+        check(typedEquals(), textEquals());
+    }
+    
+    // NUMBER answers are seq % 1000, so the range matches about a tenth of the responses
+    @Benchmark
+    public List<Long> typedNumberRange() {
+        return responseIds("e.numeric_value BETWEEN ? AND ?", numberField, 100, 199);
+    }
+    
+    @Benchmark
+    public List<Long> textNumberRange() {
+        return responseIds("CAST(e.field_value AS DECIMAL(20, 4)) BETWEEN ? AND ?", numberField, 100, 199);
+    }
+    
+    @Benchmark
+    public List<Long> typedDateRange() {
+        return responseIds("e.date_value BETWEEN ? AND ?", dateField, "2024-03-01 00:00:00", "2024-03-31 00:00:00");
+    }
+    
+    @Benchmark
+    public List<Long> textDateRange() {
+        return responseIds("CAST(e.field_value AS DATE) BETWEEN ? AND ?", dateField, "2024-03-01", "2024-03-31");
+    }
+    
+    @Benchmark
+    public List<Long> typedEquals() {
+        return responseIds("e.short_value = ?", dropdownField, "Green");
+    }
+    
+    @Benchmark
+    public List<Long> textEquals() {
+        return responseIds("e.field_value = ?", dropdownField, "Green");
+    }
+    
+    private List<Long> responseIds(String predicate, Long fieldId, Object... values) {
+        Object[] args = new Object[values.length + 1];
+        args[0] = fieldId;
+        System.arraycopy(values, 0, args, 1, values.length);
+        return jdbcTemplate.queryForList("SELECT e.response_id FROM response_entries e WHERE e.form_field_id = ? AND " +
+                                         predicate, Long.class, args);
+    }
+    
+    private static void check(List<Long> typed, List<Long> text) {
+        if (typed.isEmpty() || !new HashSet<>(typed).equals(new HashSet<>(text))) {
+            throw new IllegalStateException("Typed query matched " + typed.size() + " responses, text query " + text.size());
+        }
+    }
+    
+    private static Long fieldOfType(BackendState state, FormField.FieldType type) {
+        return state.fields.stream()
+                .filter(field -> field.getFieldType() == type)
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+}
@@ -0,0 +1,61 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.dto.ResponseEntryDto;
+import com.formmanagement.model.Response;
+import com.formmanagement.repository.ResponseEntryRepository;
+import com.formmanagement.repository.ResponseRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// The unpaged response listing over the seeded form. listAll is getResponsesByForm, which
+// projects DTOs and loads entries with one IN query per 500 responses; listAllPerResponse
+// is the entity mapping with one entry query per response that it replaced, kept here as
+// the baseline.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ListingBenchmark {
+    
+    private ResponseRepository responseRepository;
+    
+    private ResponseEntryRepository responseEntryRepository;
+    
+    private TransactionTemplate readOnly;
+    
+    @Setup(Level.Trial)
+    public void setUp(BackendState state) {
+        responseRepository = state.context.getBean(ResponseRepository.class);
+        responseEntryRepository = state.context.getBean(ResponseEntryRepository.class);
+        readOnly = new TransactionTemplate(state.context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+    
+    @Benchmark
+    public List<ResponseDto> listAll(BackendState state) {
+        return state.responseService.getResponsesByForm(state.form.getId(), state.creator);
+    }
+    
+    @Benchmark
+    public List<ResponseDto> listAllPerResponse(BackendState state) {
+        return readOnly.execute(status -> responseRepository.findByFormOrderBySubmittedAtDesc(state.form).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList()));
+    }
+    
+    private ResponseDto convertToDto(Response response) {
+        ResponseDto dto = new ResponseDto(response);
+        dto.setEntries(responseEntryRepository.findByResponse(response).stream()
+                .map(ResponseEntryDto::new)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
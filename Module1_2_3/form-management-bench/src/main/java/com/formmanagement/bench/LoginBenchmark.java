@@ -0,0 +1,66 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.JwtResponse;
+import com.formmanagement.dto.LoginRequest;
+import com.formmanagement.dto.RegisterRequest;
+import com.formmanagement.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Logins per second through AuthService, with the hashes and the hashing pool configured as
+// in production apart from the algorithm. Four threads log in at once so the bounded hashing
+// pool is what limits throughput, as it does under a login burst.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class LoginBenchmark {
+    
+    private static final int USER_COUNT = 16;
+    
+    private static final String PASSWORD = "bench-password-1";
+    
+    @Param({"bcrypt", "argon2"})
+    public String algorithm;
+    
+    private Path dataDir;
+    
+    private ConfigurableApplicationContext context;
+    
+    private AuthService authService;
+    
+    private final AtomicInteger next = new AtomicInteger();
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        dataDir = Files.createTempDirectory("form-management-bench");
+        context = BackendState.startBackend(dataDir, "--password.hashing.algorithm=" + algorithm);
+        authService = context.getBean(AuthService.class);
+        
+        for (int i = 0; i < USER_COUNT; i++) {
+            authService.registerUser(new RegisterRequest("bench" + i, "bench" + i + "@example.com", PASSWORD));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+    
+    @Benchmark
+    public JwtResponse login() {
+        int user = Math.floorMod(next.getAndIncrement(), USER_COUNT);
+        return authService.authenticateUser(new LoginRequest("bench" + user, PASSWORD));
+    }
+}
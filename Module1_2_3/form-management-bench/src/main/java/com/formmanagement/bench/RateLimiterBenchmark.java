@@ -0,0 +1,60 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.service.SubmissionRateLimiter;
+import com.formmanagement.service.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the submission rate limit check under contention: one bucket shared by all
+// threads (worst case CAS contention) and the full limiter over many client addresses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+    
+    private static final int ADDRESSES = 10_000;
+    
+    private TokenBucket sharedBucket;
+    
+    private SubmissionRateLimiter rateLimiter;
+    
+    private String[] addresses;
+    
+    @Setup
+    public void setUp() {
+        sharedBucket = new TokenBucket(1_000_000, 1);
+        
+        rateLimiter = new SubmissionRateLimiter();
+        BenchFixtures.setField(rateLimiter, "enabled", true);
+        BenchFixtures.setField(rateLimiter, "perIpCapacity", 10);
+        BenchFixtures.setField(rateLimiter, "perIpPerMinute", 30);
+        BenchFixtures.setField(rateLimiter, "perFormCapacity", 200);
+        BenchFixtures.setField(rateLimiter, "perFormPerMinute", 1200);
+        BenchFixtures.setField(rateLimiter, "maxTrackedKeys", 100_000L);
+        BenchFixtures.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        rateLimiter.start();
+        
+        addresses = new String[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            addresses[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+    
+    @Benchmark
+    public long sharedBucket() {
+        return sharedBucket.tryConsume();
+    }
+    
+    @Benchmark
+    public long limiter() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return rateLimiter.tryAcquire(addresses[random.nextInt(ADDRESSES)], (long) random.nextInt(100));
+    }
+}
@@ -0,0 +1,53 @@
+package com.formmanagement.bench;
+
+import com.formmanagement.dto.CursorPage;
+import com.formmanagement.dto.FormAnalyticsDto;
+import com.formmanagement.dto.FullTextMatchDto;
+import com.formmanagement.dto.ResponseDto;
+import com.formmanagement.model.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Service-level submission and listing paths against the seeded H2 database. Sample mode
+// records the latency distribution, so the JSON results carry p50/p99 per operation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SubmissionBenchmark {
+    
+    private int sequence;
+    
+    // Validation, limit checks, response and entries batch insert, analytics upserts
+    @Benchmark
+    public Response submit(BackendState state) {
+        return state.responseService.submitResponse(state.form.getId(),
+                BenchFixtures.payload(state.fields, sequence++), null, null, "127.0.0.1", "jmh", null);
+    }
+    
+    @Benchmark
+    public CursorPage<ResponseDto> firstPage(BackendState state) {
+        return state.responseService.getResponsePageByForm(state.form.getId(), null, 50, state.creator);
+    }
+    
+    // Range filter served by the typed numeric_value column
+    @Benchmark
+    public CursorPage<ResponseDto> numberRangeSearch(BackendState state) {
+        return state.responseService.searchResponses(state.form.getId(), state.numberRangeSearch, state.creator);
+    }
+    
+    @Benchmark
+    public FormAnalyticsDto analytics(BackendState state) {
+        return state.formAnalyticsService.getAnalytics(state.form.getId(), state.creator);
+    }
+    
+    @Benchmark
+    public List<FullTextMatchDto> fullTextSearch(BackendState state) throws IOException {
+        return state.responseService.searchFullText(state.form.getId(), "feedback lorem", 20, state.creator);
+    }
+}
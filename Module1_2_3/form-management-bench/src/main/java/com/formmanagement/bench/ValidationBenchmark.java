@@ -0,0 +1,62 @@
+package com.formmanagement.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formmanagement.model.Form;
+import com.formmanagement.model.FormField;
+import com.formmanagement.service.FieldValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Payload validation: compiling a form's validator chains (a cache miss) and running a
+// submission through the compiled chains (every submission)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    
+    @Param({"10", "100"})
+    public int fieldCount;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private List<FormField> fields;
+    
+    private List<FieldValidator> validators;
+    
+    private Map<String, Object> payload;
+    
+    @Setup
+    public void setUp() {
+        Form form = BenchFixtures.form(fieldCount);
+        fields = form.getFields();
+        validators = compile();
+        payload = BenchFixtures.payload(fields, 42);
+    }
+    
+    @Benchmark
+    public List<FieldValidator> compile() {
+        List<FieldValidator> compiled = new ArrayList<>(fields.size());
+        for (FormField field : fields) {
+            compiled.add(FieldValidator.compile(field, objectMapper));
+        }
+        return compiled;
+    }
+    
+    @Benchmark
+    public int validate() {
+        int errors = 0;
+        for (FieldValidator validator : validators) {
+            if (validator.validate(payload.get(validator.getFieldId().toString())) != null) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+}
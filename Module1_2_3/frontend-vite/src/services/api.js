@@ -86,9 +86,24 @@ export const formService = {
 };
 
 export const responseService = {
+  // Sent as multipart: the answers go in a JSON "data" part and each FILE answer in its own
+  // part named after the field id, since the server only stores files it receives as uploads
   submitResponse: async (formId, responseData, respondentEmail, respondentName) => {
-    const response = await api.post(`/responses/submit/${formId}`, responseData, {
-      params: { respondentEmail, respondentName }
+    const body = new FormData();
+    const answers = {};
+    Object.entries(responseData).forEach(([fieldId, value]) => {
+      if (value instanceof File) {
+        body.append(fieldId, value);
+      } else {
+        answers[fieldId] = value;
+      }
+    });
+    body.append('data', new Blob([JSON.stringify(answers)], { type: 'application/json' }));
+
+    // Replaces the JSON default; the browser fills in the boundary
+    const response = await api.post(`/responses/submit/${formId}`, body, {
+      params: { respondentEmail, respondentName },
+      headers: { 'Content-Type': 'multipart/form-data' },
     });
     return response.data;
   },
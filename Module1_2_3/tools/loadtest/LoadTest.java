@@ -0,0 +1,163 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Closed-loop HTTP load driver for the backend, using only the JDK.
+// Every client sends a request, waits for the answer and immediately sends the next one, so
+// the number of requests in flight equals --clients. Requests are chained asynchronously,
+// so thousands of clients need only a handful of driver threads.
+//
+// Run with the JDK source launcher (Java 17+):
+//   java LoadTest.java --scenario public --clients 2000 --duration 60 --label platform
+//   java LoadTest.java --scenario submit --form-id 1 --body '{"1":"hello"}' --label virtual
+public class LoadTest {
+    
+    // Latencies are recorded in a fixed histogram of 100 microsecond buckets up to 60 s
+    private static final long BUCKET_MICROS = 100;
+    private static final int BUCKETS = 600_000;
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080/api");
+        String scenario = options.getOrDefault("scenario", "public");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "2000"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        String label = options.getOrDefault("label", scenario);
+        
+        HttpRequest request = buildRequest(scenario, baseUrl, options);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        
+        System.out.printf("%s: %d clients against %s, %ds warmup, %ds measured%n",
+                label, clients, request.uri(), warmupSeconds, durationSeconds);
+        
+        Recorder recorder = new Recorder();
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            sendNext(client, request, recorder, measureFrom, measureUntil, finished);
+        }
+        finished.await();
+        
+        recorder.report(label, durationSeconds);
+    }
+    
+    private static void sendNext(HttpClient client, HttpRequest request, Recorder recorder,
+                                 long measureFrom, long measureUntil, CountDownLatch finished) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= measureUntil) {
+            finished.countDown();
+            return;
+        }
+        
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long completedAt = System.nanoTime();
+            if (sentAt >= measureFrom && completedAt <= measureUntil) {
+                recorder.record(completedAt - sentAt, error == null ? response.statusCode() : -1);
+            }
+            sendNext(client, request, recorder, measureFrom, measureUntil, finished);
+        });
+    }
+    
+    private static HttpRequest buildRequest(String scenario, String baseUrl, Map<String, String> options) throws Exception {
+        switch (scenario) {
+            case "public":
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/forms/public"))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+            case "submit":
+                String formId = required(options, "form-id");
+                String body = options.containsKey("body-file")
+                        ? Files.readString(Path.of(options.get("body-file")))
+                        : required(options, "body");
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/responses/submit/" + formId))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario + " (use public or submit)");
+        }
+    }
+    
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + Arrays.toString(args));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+    
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required for this scenario");
+        }
+        return value;
+    }
+    
+    private static class Recorder {
+        
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        
+        void record(long nanos, int status) {
+            int bucket = (int) Math.min(BUCKETS - 1, nanos / 1_000 / BUCKET_MICROS);
+            histogram.incrementAndGet(bucket);
+            completed.incrementAndGet();
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+            if (status < 200 || status >= 300) {
+                failed.incrementAndGet();
+            }
+        }
+        
+        void report(String label, int durationSeconds) {
+            long total = completed.get();
+            System.out.printf(Locale.ROOT, "%s: %d requests, %.1f req/s, %d non-2xx or failed%n",
+                    label, total, (double) total / durationSeconds, failed.get());
+            System.out.printf(Locale.ROOT, "%s: p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                    label, percentile(total, 0.50), percentile(total, 0.90), percentile(total, 0.99),
+                    maxNanos.get() / 1_000_000.0);
+            System.out.printf("%s: status codes %s (-1 = connection error or timeout)%n", label, statuses);
+        }
+        
+        private double percentile(long total, double quantile) {
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= rank && rank > 0) {
+                    return (i + 1) * BUCKET_MICROS / 1_000.0;
+                }
+            }
+            return 0;
+        }
+    }
+}